@@ -1,15 +1,21 @@
 package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.List;
 
+import static ru.practicum.shareit.util.Cursor.NEXT_CURSOR_HEADER;
+
 
 @RestController
 @AllArgsConstructor
@@ -32,20 +38,32 @@ public class BookingController {
         return bookingService.approve(bookingId, approved, userId);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> approveAll(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                                     @RequestBody List<BookingDecisionDto> decisions) {
+        return bookingService.approveAll(decisions, userId);
+    }
+
     @GetMapping("/owner")
-    public List<BookingAllDto> getBookingsByOwner(@RequestHeader(required = false, value = "X-Sharer-User-Id") Long userId,
-                                                  @RequestParam(required = false) String state,
-                                                  @RequestParam(required = false) Integer from,
-                                                  @RequestParam(required = false) Integer size) {
-        return bookingService.getBookingsByOwner(userId, state, from, size);
+    public ResponseEntity<List<BookingAllDto>> getBookingsByOwner(@RequestHeader(required = false, value = "X-Sharer-User-Id") Long userId,
+                                                                  @RequestParam(required = false) String state,
+                                                                  @RequestParam(required = false) Integer from,
+                                                                  @RequestParam(required = false) Integer size,
+                                                                  @RequestParam(required = false) String cursor) {
+        if (cursor != null)
+            return toResponse(bookingService.getBookingsByOwnerAfter(userId, state, cursor, size));
+        return ResponseEntity.ok(bookingService.getBookingsByOwner(userId, state, from, size));
     }
 
     @GetMapping()
-    public List<BookingAllDto> getAll(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
-                                      @RequestParam(required = false) String state,
-                                      @RequestParam(required = false) Integer from,
-                                      @RequestParam(required = false) Integer size) {
-        return bookingService.getAll(userId, state, from, size);
+    public ResponseEntity<List<BookingAllDto>> getAll(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                                      @RequestParam(required = false) String state,
+                                                      @RequestParam(required = false) Integer from,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(required = false) String cursor) {
+        if (cursor != null)
+            return toResponse(bookingService.getAllAfter(userId, state, cursor, size));
+        return ResponseEntity.ok(bookingService.getAll(userId, state, from, size));
     }
 
     @GetMapping("/{bookingId}")
@@ -53,4 +71,11 @@ public class BookingController {
                              @PathVariable Long bookingId) {
         return bookingService.get(bookingId, userId);
     }
+
+    private ResponseEntity<List<BookingAllDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null)
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        return response.body(page.getBookings());
+    }
 }
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-item cache of the last/next booking projection shown to the owner.
+ * An entry expires when the earliest future booking starts (the projection changes at that moment)
+ * or after max-staleness, whichever comes first, and is evicted on every booking write for the item.
+ * A full cache drops its expired entries, then live ones until a tenth of it is free,
+ * so the scan is paid once per {@code maxSize / 10} insertions.
+ */
+@Component
+public class ItemBookingsCache {
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration maxStaleness;
+    private final int maxSize;
+
+    public ItemBookingsCache(@Value("${shareit.bookings.cache.max-staleness:5m}") Duration maxStaleness,
+                             @Value("${shareit.bookings.cache.max-size:100000}") int maxSize) {
+        this.maxStaleness = maxStaleness;
+        this.maxSize = maxSize;
+    }
+
+    public ItemBookingsDto get(Long itemId, LocalDateTime now, Function<Long, ItemBookingsDto> loader) {
+        Entry entry = entries.get(itemId);
+        if (entry != null && now.isBefore(entry.expiresAt))
+            return entry.bookings;
+        ItemBookingsDto bookings = loader.apply(itemId);
+        put(itemId, bookings, now);
+        return bookings;
+    }
+
+    public Map<Long, ItemBookingsDto> getAll(Collection<Long> itemIds, LocalDateTime now,
+                                             Function<List<Long>, Map<Long, ItemBookingsDto>> loader) {
+        Map<Long, ItemBookingsDto> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            Entry entry = entries.get(itemId);
+            if (entry != null && now.isBefore(entry.expiresAt))
+                result.put(itemId, entry.bookings);
+            else
+                missing.add(itemId);
+        }
+        if (missing.isEmpty()) return result;
+        loader.apply(missing).forEach((itemId, bookings) -> {
+            put(itemId, bookings, now);
+            result.put(itemId, bookings);
+        });
+        return result;
+    }
+
+    public void put(Long itemId, ItemBookingsDto bookings, LocalDateTime now) {
+        LocalDateTime expiresAt = now.plus(maxStaleness);
+        if (bookings.getValidUntil() != null && bookings.getValidUntil().isBefore(expiresAt))
+            expiresAt = bookings.getValidUntil();
+        if (entries.size() >= maxSize && !entries.containsKey(itemId))
+            makeRoom(now);
+        entries.put(itemId, new Entry(bookings, expiresAt));
+    }
+
+    public void evict(Long itemId) {
+        entries.remove(itemId);
+        TransactionHooks.afterCompletion(() -> entries.remove(itemId));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void makeRoom(LocalDateTime now) {
+        entries.values().removeIf(entry -> !now.isBefore(entry.expiresAt));
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final ItemBookingsDto bookings;
+        private final LocalDateTime expiresAt;
+
+        private Entry(ItemBookingsDto bookings, LocalDateTime expiresAt) {
+            this.bookings = bookings;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
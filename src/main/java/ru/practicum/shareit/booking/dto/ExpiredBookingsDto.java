@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one expiry batch: how many WAITING bookings were selected and how many of them were actually
+ * canceled. The two differ when an owner decides on a booking while the batch runs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpiredBookingsDto {
+    private int selected;
+    private int canceled;
+}
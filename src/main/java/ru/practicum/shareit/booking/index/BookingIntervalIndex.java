@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.Enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingStorage;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ru.practicum.shareit.Enums.Status.APPROVED;
+import static ru.practicum.shareit.Enums.Status.WAITING;
+import static ru.practicum.shareit.booking.index.HourBitmap.hourAfter;
+import static ru.practicum.shareit.booking.index.HourBitmap.hourOf;
+
+/**
+ * In-memory per-item index of WAITING and APPROVED bookings used to reject overlapping reservations
+ * and to answer calendar queries from hour buckets.
+ * Writes are applied immediately and undone if the surrounding transaction rolls back.
+ * Only bookings that have not ended are kept: warm-up skips the rest and every write to an item
+ * drops its intervals that ended by then, since a new booking cannot start in the past.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    private static final List<Status> ACTIVE = List.of(WAITING, APPROVED);
+
+    private final Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+    private final Map<Long, HourBitmap> calendars = new ConcurrentHashMap<>();
+    private final BookingStorage bookingStorage;
+
+    public BookingIntervalIndex(BookingStorage bookingStorage) {
+        this.bookingStorage = bookingStorage;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Object[]> intervals = bookingStorage.findIntervals(ACTIVE, LocalDateTime.now());
+        for (Object[] interval : intervals)
+            insert((Long) interval[0], (Long) interval[1], (LocalDateTime) interval[2], (LocalDateTime) interval[3]);
+        log.info("Индекс бронирований загружен: {} интервалов", intervals.size());
+    }
+
+    public boolean hasConflict(Long itemId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = trees.get(itemId);
+        return tree != null && tree.overlaps(start, end);
+    }
+
+    /**
+     * Busy flags of the hours [from, to); both bounds are expected to be whole hours.
+     */
+    public BitSet busyHours(Long itemId, LocalDateTime from, LocalDateTime to) {
+        HourBitmap calendar = calendars.get(itemId);
+        return calendar != null ? calendar.get(hourOf(from), hourOf(to)) : new BitSet();
+    }
+
+    public void add(Booking booking) {
+        if (!ACTIVE.contains(booking.getStatus())) return;
+        Long itemId = booking.getItem().getId();
+        prune(itemId, LocalDateTime.now());
+        insert(itemId, booking.getId(), booking.getStart(), booking.getEnd());
+        TransactionHooks.onRollback(() -> delete(itemId, booking.getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    public void remove(Booking booking) {
+        remove(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+    }
+
+    public void remove(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (!delete(itemId, bookingId, start, end)) return;
+        TransactionHooks.onRollback(() -> insert(itemId, bookingId, start, end));
+    }
+
+    void prune(Long itemId, LocalDateTime now) {
+        IntervalTree tree = trees.get(itemId);
+        if (tree == null) return;
+        HourBitmap calendar = calendars.get(itemId);
+        synchronized (tree) {
+            for (LocalDateTime[] ended : tree.removeEndedBy(now)) {
+                calendar.clear(hourOf(ended[0]), hourAfter(ended[1]));
+                for (LocalDateTime[] interval : tree.overlapping(ended[0].minusHours(1), ended[1].plusHours(1)))
+                    calendar.set(hourOf(interval[0]), hourAfter(interval[1]));
+            }
+        }
+    }
+
+    int size(Long itemId) {
+        IntervalTree tree = trees.get(itemId);
+        return tree == null ? 0 : tree.size();
+    }
+
+    private void insert(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = trees.computeIfAbsent(itemId, id -> new IntervalTree());
+        HourBitmap calendar = calendars.computeIfAbsent(itemId, id -> new HourBitmap());
+        synchronized (tree) {
+            tree.insert(bookingId, start, end);
+            calendar.set(hourOf(start), hourAfter(end));
+        }
+    }
+
+    private boolean delete(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = trees.get(itemId);
+        if (tree == null) return false;
+        HourBitmap calendar = calendars.get(itemId);
+        synchronized (tree) {
+            if (!tree.remove(bookingId)) return false;
+            long fromHour = hourOf(start);
+            long toHour = hourAfter(end);
+            calendar.clear(fromHour, toHour);
+            for (LocalDateTime[] interval : tree.overlapping(start.minusHours(1), end.plusHours(1)))
+                calendar.set(hourOf(interval[0]), hourAfter(interval[1]));
+            return true;
+        }
+    }
+}
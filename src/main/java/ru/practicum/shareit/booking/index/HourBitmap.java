@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Busy hours of one item. Hours are numbered from the epoch and split into chunks of 4096 bits
+ * (about 170 days); a chunk is allocated on first write and dropped once it becomes empty.
+ */
+class HourBitmap {
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    private static final int WORDS = (1 << CHUNK_SHIFT) / Long.SIZE;
+
+    private final Map<Long, long[]> chunks = new HashMap<>();
+
+    static long hourOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+
+    static long hourAfter(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC) + 3599, 3600);
+    }
+
+    synchronized void set(long from, long to) {
+        update(from, to, true);
+    }
+
+    synchronized void clear(long from, long to) {
+        update(from, to, false);
+    }
+
+    synchronized BitSet get(long from, long to) {
+        BitSet result = new BitSet((int) (to - from));
+        for (long hour = from; hour < to; ) {
+            long key = hour >> CHUNK_SHIFT;
+            long chunkEnd = Math.min(to, (key + 1) << CHUNK_SHIFT);
+            long[] words = chunks.get(key);
+            if (words != null) {
+                for (long bitHour = hour; bitHour < chunkEnd; ) {
+                    int bit = (int) (bitHour & CHUNK_MASK);
+                    long word = words[bit >>> 6] >>> (bit & 63);
+                    int span = (int) Math.min(64 - (bit & 63), chunkEnd - bitHour);
+                    if (span < 64) word &= (1L << span) - 1;
+                    while (word != 0) {
+                        int offset = Long.numberOfTrailingZeros(word);
+                        result.set((int) (bitHour - from) + offset);
+                        word &= word - 1;
+                    }
+                    bitHour += span;
+                }
+            }
+            hour = chunkEnd;
+        }
+        return result;
+    }
+
+    synchronized int chunks() {
+        return chunks.size();
+    }
+
+    private void update(long from, long to, boolean value) {
+        for (long hour = from; hour < to; ) {
+            long key = hour >> CHUNK_SHIFT;
+            long chunkEnd = Math.min(to, (key + 1) << CHUNK_SHIFT);
+            long[] words = chunks.get(key);
+            if (words == null && value) {
+                words = new long[WORDS];
+                chunks.put(key, words);
+            }
+            if (words != null) {
+                int bit = (int) (hour & CHUNK_MASK);
+                int end = (int) (chunkEnd - (key << CHUNK_SHIFT));
+                while (bit < end) {
+                    int wordEnd = Math.min(end, ((bit >>> 6) + 1) << 6);
+                    long mask = -1L << (bit & 63);
+                    if ((wordEnd & 63) != 0) mask &= (1L << (wordEnd & 63)) - 1;
+                    if (value)
+                        words[bit >>> 6] |= mask;
+                    else
+                        words[bit >>> 6] &= ~mask;
+                    bit = wordEnd;
+                }
+                if (!value && isEmpty(words)) chunks.remove(key);
+            }
+            hour = chunkEnd;
+        }
+    }
+
+    private static boolean isEmpty(long[] words) {
+        for (long word : words)
+            if (word != 0) return false;
+        return true;
+    }
+}
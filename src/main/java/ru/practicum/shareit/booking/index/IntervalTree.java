@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AVL tree of half-open intervals [start, end) ordered by (start, id).
+ * Every node keeps the maximum end of its subtree, so an overlap check walks a single path.
+ */
+class IntervalTree {
+    private final Map<Long, LocalDateTime> starts = new HashMap<>();
+    private Node root;
+
+    synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) return true;
+            if (node.left != null && node.left.maxEnd.isAfter(start))
+                node = node.left;
+            else
+                node = node.right;
+        }
+        return false;
+    }
+
+    synchronized List<LocalDateTime[]> overlapping(LocalDateTime start, LocalDateTime end) {
+        List<LocalDateTime[]> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    synchronized void insert(long id, LocalDateTime start, LocalDateTime end) {
+        if (starts.containsKey(id)) root = delete(root, id, starts.get(id));
+        starts.put(id, start);
+        root = insert(root, new Node(id, start, end));
+    }
+
+    synchronized boolean remove(long id) {
+        LocalDateTime start = starts.remove(id);
+        if (start == null) return false;
+        root = delete(root, id, start);
+        return true;
+    }
+
+    /**
+     * Removes the intervals that end at or before {@code time} and returns them.
+     */
+    synchronized List<LocalDateTime[]> removeEndedBy(LocalDateTime time) {
+        List<Node> ended = new ArrayList<>();
+        collectEnded(root, time, ended);
+        List<LocalDateTime[]> removed = new ArrayList<>(ended.size());
+        for (Node node : ended) {
+            remove(node.id);
+            removed.add(new LocalDateTime[]{node.start, node.end});
+        }
+        return removed;
+    }
+
+    synchronized int size() {
+        return starts.size();
+    }
+
+    private static void collect(Node node, LocalDateTime start, LocalDateTime end, List<LocalDateTime[]> result) {
+        if (node == null || !node.maxEnd.isAfter(start)) return;
+        collect(node.left, start, end, result);
+        if (!node.start.isBefore(end)) return;
+        if (node.end.isAfter(start)) result.add(new LocalDateTime[]{node.start, node.end});
+        collect(node.right, start, end, result);
+    }
+
+    private static void collectEnded(Node node, LocalDateTime time, List<Node> result) {
+        if (node == null) return;
+        collectEnded(node.left, time, result);
+        if (!node.start.isBefore(time)) return;
+        if (!node.end.isAfter(time)) result.add(node);
+        collectEnded(node.right, time, result);
+    }
+
+    private static Node insert(Node node, Node created) {
+        if (node == null) return created;
+        if (compare(created.start, created.id, node) < 0)
+            node.left = insert(node.left, created);
+        else
+            node.right = insert(node.right, created);
+        return balance(node);
+    }
+
+    private static Node delete(Node node, long id, LocalDateTime start) {
+        if (node == null) return null;
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, id, start);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, id, start);
+        } else {
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            Node min = node.right;
+            while (min.left != null) min = min.left;
+            min.right = deleteMin(node.right);
+            min.left = node.left;
+            node = min;
+        }
+        return balance(node);
+    }
+
+    private static Node deleteMin(Node node) {
+        if (node.left == null) return node.right;
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(LocalDateTime start, long id, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) maxEnd = node.left.maxEnd;
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) maxEnd = node.right.maxEnd;
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private final long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
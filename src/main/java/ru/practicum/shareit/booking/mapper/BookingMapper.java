@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.mapper;
 import ru.practicum.shareit.Enums.Status;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -25,4 +26,15 @@ public class BookingMapper {
                 .status(Status.valueOf(booking.getStatus().name()))
                 .build();
     }
+
+    public static BookingEventDto toBookingEventDto(Booking booking) {
+        return BookingEventDto.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getBooker().getId())
+                .status(booking.getStatus())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.Enums.States;
+import ru.practicum.shareit.Enums.Status;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class BookingQuery {
+    private final Role role;
+    private final Long userId;
+    private final States state;
+    private final Status status;
+    private final LocalDateTime now;
+    private final Integer offset;
+    private final Integer limit;
+    private final LocalDateTime afterStart;
+    private final Long afterId;
+
+    public enum Role {
+        OWNER,
+        BOOKER
+    }
+}
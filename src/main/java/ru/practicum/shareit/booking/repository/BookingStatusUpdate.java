@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.Enums.Status;
+
+@Getter
+@AllArgsConstructor
+public class BookingStatusUpdate {
+    private final Long id;
+    private final long version;
+    private final Status status;
+}
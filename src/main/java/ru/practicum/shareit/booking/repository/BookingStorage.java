@@ -1,92 +1,77 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.Enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingStorage extends JpaRepository<Booking, Long> {
-    //for owner
-    List<Booking> findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(User owner,
-                                                                                     LocalDateTime startDateTime,
-                                                                                     LocalDateTime endDateTime);
+public interface BookingStorage extends JpaRepository<Booking, Long>, BookingStorageCustom {
+    int LAST = 0;
+    int NEXT = 1;
+    int UPCOMING = 2;
 
-    Page<Booking> findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(User owner,
-                                                                                     LocalDateTime startDateTime,
-                                                                                     LocalDateTime endDateTime,
-                                                                                     Pageable pageable);
-
-    List<Booking> findBookingsByItemOwnerAndStartAfterOrderByStartDesc(User owner,
-                                                                       LocalDateTime localDateTime);
-
-    Page<Booking> findBookingsByItemOwnerAndStartAfterOrderByStartDesc(User owner,
-                                                                       LocalDateTime localDateTime,
-                                                                       Pageable pageable);
-
-    List<Booking> findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(User owner,
-                                                                      LocalDateTime localDateTime);
-
-    Page<Booking> findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(User owner,
-                                                                      LocalDateTime localDateTime,
-                                                                      Pageable pageable);
-
-    List<Booking> findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(User owner,
-                                                                       Status bookingState);
-
-    Page<Booking> findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(User owner,
-                                                                       Status bookingState,
-                                                                       Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(Long itemId,
                                                                       Long userId);
 
-    Page<Booking> findBookingsByItemOwnerIsOrderByStartDesc(User owner,
-                                                            Pageable pageable);
-
-    List<Booking> findBookingsByItemOwnerIsOrderByStartDesc(User owner);
-
-    //for booker
-    List<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
-                                                                                  LocalDateTime startDateTime,
-                                                                                  LocalDateTime endDateTime);
-
-    Page<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
-                                                                                  LocalDateTime startDateTime,
-                                                                                  LocalDateTime endDateTime,
-                                                                                  Pageable pageable);
-
-    List<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker,
-                                                                        LocalDateTime localDateTime);
-
-    Page<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker,
-                                                                        LocalDateTime localDateTime,
-                                                                        Pageable pageable);
-
-    List<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker,
-                                                                     LocalDateTime localDateTime);
-
-    Page<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker,
-                                                                     LocalDateTime localDateTime,
-                                                                     Pageable pageable);
-
     List<Booking> findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(Long itemId,
                                                                   Status bookingState,
                                                                   LocalDateTime localDateTime);
 
-    List<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker,
-                                                                    Status bookingState);
-
-    Page<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker,
-                                                                    Status bookingState,
-                                                                    Pageable pageable);
-
-    Page<Booking> findBookingsByBookerIsOrderByStartDesc(User booker,
-                                                         Pageable pageable);
-
-    List<Booking> findBookingsByBookerIsOrderByStartDesc(User booker);
+    @Query("select booking.item.id, booking.id, booking.start, booking.end from Booking booking " +
+            "where booking.status in ?1 " +
+            "and booking.end > ?2")
+    List<Object[]> findIntervals(Collection<Status> statuses, LocalDateTime endAfter);
+
+    @Query("select booking.id, booking.item.id, booking.item.owner.id, booking.booker.id, " +
+            "booking.status, booking.version, booking.start, booking.end from Booking booking " +
+            "where booking.id in ?1")
+    List<Object[]> findForDecision(Collection<Long> ids);
+
+    @Query("select booking.id, booking.item.id, booking.start, booking.end, booking.booker.id from Booking booking " +
+            "where booking.status = ?1 " +
+            "and booking.start < ?2 " +
+            "order by booking.id")
+    List<Object[]> findStartedBefore(Status status, LocalDateTime now, Pageable pageable);
+
+    @Query("select booking.id from Booking booking " +
+            "where booking.id in ?1 " +
+            "and booking.status = ?2")
+    List<Long> findIdsWithStatus(Collection<Long> ids, Status status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking booking " +
+            "set booking.status = ?2, booking.version = booking.version + 1 " +
+            "where booking.id in ?1 " +
+            "and booking.status = ?3")
+    int updateStatus(Collection<Long> ids, Status status, Status expected);
+
+    @Query(value = "select kind, item_id, id, booker_id, start_date from (" +
+            "select " + LAST + " as kind, item_id, id, booker_id, start_date, " +
+            "row_number() over (partition by item_id order by end_date desc, id desc) as rn " +
+            "from bookings where item_id in (:itemIds) and start_date < :now " +
+            "union all " +
+            "select " + NEXT + ", item_id, id, booker_id, start_date, " +
+            "row_number() over (partition by item_id order by end_date, id) " +
+            "from bookings where item_id in (:itemIds) and start_date > :now and status <> 'REJECTED' " +
+            "union all " +
+            "select " + UPCOMING + ", item_id, id, booker_id, start_date, " +
+            "row_number() over (partition by item_id order by start_date, id) " +
+            "from bookings where item_id in (:itemIds) and start_date > :now" +
+            ") ranked where rn = 1",
+            nativeQuery = true)
+    List<Object[]> findLastAndNext(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingStorageCustom {
+    List<Booking> search(BookingQuery query);
+
+    int[] updateStatuses(List<BookingStatusUpdate> updates);
+}
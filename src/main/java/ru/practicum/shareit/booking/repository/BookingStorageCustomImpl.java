@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.Enums.States;
+import ru.practicum.shareit.Enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ru.practicum.shareit.Enums.States.ALL;
+import static ru.practicum.shareit.booking.repository.BookingQuery.Role.OWNER;
+
+/**
+ * Builds a single select for every (role, state, status) combination. Values are bound as parameters,
+ * so each combination renders the same JPQL and reuses the cached Hibernate query plan.
+ * A cursor (afterStart, afterId) seeks past the previous page on the (start_date DESC, id DESC) order.
+ */
+public class BookingStorageCustomImpl implements BookingStorageCustom {
+    private static final String UPDATE_STATUS = "update bookings set status = ?, version = version + 1 " +
+            "where id = ? and version = ? and status = 'WAITING'";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] updateStatuses(List<BookingStatusUpdate> updates) {
+        entityManager.flush();
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_STATUS, updates, updates.size(), (statement, update) -> {
+            statement.setString(1, update.getStatus().name());
+            statement.setLong(2, update.getId());
+            statement.setLong(3, update.getVersion());
+        })[0];
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Booking> search(BookingQuery query) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> criteria = builder.createQuery(Booking.class);
+        Root<Booking> booking = criteria.from(Booking.class);
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+        Join<Item, User> owner = (Join<Item, User>) item.<Item, User>fetch("owner");
+        Join<Booking, User> booker = (Join<Booking, User>) booking.<Booking, User>fetch("booker");
+
+        ParameterExpression<Long> userId = builder.parameter(Long.class, "userId");
+        ParameterExpression<LocalDateTime> now = builder.parameter(LocalDateTime.class, "now");
+        ParameterExpression<Status> status = builder.parameter(Status.class, "status");
+        ParameterExpression<LocalDateTime> afterStart = builder.parameter(LocalDateTime.class, "afterStart");
+        ParameterExpression<Long> afterId = builder.parameter(Long.class, "afterId");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(builder.equal(query.getRole() == OWNER ? owner.get("id") : booker.get("id"), userId));
+        States state = query.getState() != null ? query.getState() : ALL;
+        switch (state) {
+            case PAST:
+                predicates.add(builder.lessThan(booking.<LocalDateTime>get("end"), now));
+                break;
+            case CURRENT:
+                predicates.add(builder.lessThan(booking.<LocalDateTime>get("start"), now));
+                predicates.add(builder.greaterThan(booking.<LocalDateTime>get("end"), now));
+                break;
+            case FUTURE:
+                predicates.add(builder.greaterThan(booking.<LocalDateTime>get("start"), now));
+                break;
+        }
+        if (query.getStatus() != null)
+            predicates.add(builder.equal(booking.get("status"), status));
+        if (query.getAfterId() != null)
+            predicates.add(builder.or(
+                    builder.lessThan(booking.<LocalDateTime>get("start"), afterStart),
+                    builder.and(
+                            builder.equal(booking.<LocalDateTime>get("start"), afterStart),
+                            builder.lessThan(booking.<Long>get("id"), afterId))));
+
+        criteria.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.desc(booking.get("start")), builder.desc(booking.get("id")));
+
+        TypedQuery<Booking> typedQuery = entityManager.createQuery(criteria)
+                .setParameter(userId, query.getUserId());
+        if (state != ALL)
+            typedQuery.setParameter(now, query.getNow());
+        if (query.getStatus() != null)
+            typedQuery.setParameter(status, query.getStatus());
+        if (query.getAfterId() != null)
+            typedQuery.setParameter(afterStart, query.getAfterStart())
+                    .setParameter(afterId, query.getAfterId());
+        if (query.getLimit() != null)
+            typedQuery.setFirstResult(query.getOffset() != null ? query.getOffset() : 0)
+                    .setMaxResults(query.getLimit());
+        return typedQuery.getResultList();
+    }
+}
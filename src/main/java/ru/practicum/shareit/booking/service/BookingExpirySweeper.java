@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.ExpiredBookingsDto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cancels WAITING bookings whose start has passed without the owner's decision.
+ */
+@Slf4j
+@Component
+public class BookingExpirySweeper {
+    private final BookingService bookingService;
+    private final int batchSize;
+    private final Timer duration;
+    private final Counter canceled;
+    private final AtomicInteger lastRun = new AtomicInteger();
+
+    public BookingExpirySweeper(BookingService bookingService,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.bookings.sweeper.batch-size:500}") int batchSize) {
+        this.bookingService = bookingService;
+        this.batchSize = batchSize;
+        this.duration = meterRegistry.timer("shareit.bookings.sweeper.duration");
+        this.canceled = meterRegistry.counter("shareit.bookings.sweeper.canceled");
+        meterRegistry.gauge("shareit.bookings.sweeper.last.canceled", lastRun);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.sweeper.delay:60000}",
+            initialDelayString = "${shareit.bookings.sweeper.initial-delay:60000}")
+    public int sweep() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        ExpiredBookingsDto batch;
+        do {
+            batch = bookingService.cancelExpired(now, batchSize);
+            total += batch.getCanceled();
+        } while (batch.getSelected() == batchSize);
+        duration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        canceled.increment(total);
+        lastRun.set(total);
+        if (total > 0)
+            log.info("Просроченные бронирования обработаны: {} за {} мс",
+                    total, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return total;
+    }
+}
@@ -2,24 +2,47 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.CalendarSlotDto;
+import ru.practicum.shareit.booking.dto.ExpiredBookingsDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService  {
     BookingAllDto save(BookingControllerDto booking, ItemAllDto itemDto, Long id);
 
     BookingAllDto approve(Long id, boolean approved, Long userId);
 
+    List<BookingDecisionResultDto> approveAll(List<BookingDecisionDto> decisions, Long userId);
+
     List<BookingAllDto> getBookingsByOwner(Long userId, String state);
 
     List<BookingAllDto> getBookingsByOwner(Long userId, String state, Integer from, Integer size);
 
+    BookingPageDto getBookingsByOwnerAfter(Long userId, String state, String cursor, Integer size);
+
     List<BookingAllDto> getBookingsByItem(Long itemId, Long userId);
 
+    ItemBookingsDto getLastAndNext(Long itemId);
+
+    Map<Long, ItemBookingsDto> getLastAndNext(Collection<Long> itemIds);
+
     List<BookingAllDto> getAll(Long id, String state);
 
     List<BookingAllDto> getAll(Long bookerId, String state, Integer from, Integer size);
 
+    BookingPageDto getAllAfter(Long bookerId, String state, String cursor, Integer size);
+
     BookingAllDto get(Long id, Long userId);
+
+    List<CalendarSlotDto> getCalendar(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    ExpiredBookingsDto cancelExpired(LocalDateTime now, int limit);
 }
@@ -6,31 +6,60 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.Enums.States;
 import ru.practicum.shareit.Enums.Status;
+import ru.practicum.shareit.booking.cache.ItemBookingsCache;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ExpiredBookingsDto;
+import ru.practicum.shareit.booking.dto.CalendarSlotDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingStatusUpdate;
 import ru.practicum.shareit.booking.repository.BookingStorage;
 import ru.practicum.shareit.errors.exception.IncorrectParameterException;
 import ru.practicum.shareit.errors.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.Cursor;
+import ru.practicum.shareit.util.StripedLocks;
 
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import static java.time.LocalDateTime.now;
+import static java.time.temporal.ChronoUnit.HOURS;
 import static java.util.stream.Collectors.toList;
-import static ru.practicum.shareit.Enums.States.*;
+import static ru.practicum.shareit.Enums.States.ALL;
 import static ru.practicum.shareit.Enums.Status.*;
+import static ru.practicum.shareit.booking.repository.BookingQuery.Role.BOOKER;
+import static ru.practicum.shareit.booking.repository.BookingQuery.Role.OWNER;
 import static ru.practicum.shareit.util.Pagination.makePageRequest;
 
 @Slf4j
@@ -38,8 +67,19 @@ import static ru.practicum.shareit.util.Pagination.makePageRequest;
 @AllArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_DECISIONS = 1000;
+    private static final int DEFAULT_CALENDAR_DAYS = 90;
+    private static final int MAX_CALENDAR_DAYS = 366;
+    private static final String BOOKING_CREATED = "BOOKING_CREATED";
+    private static final String BOOKING_STATUS_CHANGED = "BOOKING_STATUS_CHANGED";
+
     private final UserService userService;
     private final BookingStorage bookingStorage;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingsCache itemBookingsCache;
+    private final StripedLocks itemLocks;
+    private final OutboxService outboxService;
 
     @Override
     @Transactional
@@ -55,7 +95,16 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(WAITING);
         booking.setBooker(booker);
         booking.setItem(item);
-        return BookingMapper.mapToBookingAllFieldsDto(bookingStorage.save(booking));
+        Booking savedBooking = itemLocks.withLock(itemDto.getId(), () -> {
+            if (bookingIntervalIndex.hasConflict(itemDto.getId(), booking.getStart(), booking.getEnd()))
+                throw new IncorrectParameterException("Вещь с id = " + itemDto.getId() + " уже забронирована на эти даты");
+            Booking saved = bookingStorage.save(booking);
+            bookingIntervalIndex.add(saved);
+            return saved;
+        });
+        itemBookingsCache.evict(itemDto.getId());
+        outboxService.append(BOOKING_CREATED, savedBooking.getId(), BookingMapper.toBookingEventDto(savedBooking));
+        return BookingMapper.mapToBookingAllFieldsDto(savedBooking);
     }
 
     @Override
@@ -70,101 +119,91 @@ public class BookingServiceImpl implements BookingService {
             throw new IncorrectParameterException("Бронирование не может быть обновлено");
         booking.setStatus(approved ? APPROVED : REJECTED);
         Booking savedBooking = bookingStorage.save(booking);
+        if (!approved)
+            bookingIntervalIndex.remove(savedBooking);
+        itemBookingsCache.evict(savedBooking.getItem().getId());
+        outboxService.append(BOOKING_STATUS_CHANGED, savedBooking.getId(), BookingMapper.toBookingEventDto(savedBooking));
         return BookingMapper.mapToBookingAllFieldsDto(savedBooking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> approveAll(List<BookingDecisionDto> decisions, Long userId) {
+        if (decisions == null || decisions.isEmpty())
+            throw new IncorrectParameterException("Список решений не может быть пустым");
+        if (decisions.size() > MAX_DECISIONS)
+            throw new IncorrectParameterException("Нельзя обработать больше " + MAX_DECISIONS + " бронирований за раз");
+        Map<Long, Object[]> rows = new HashMap<>();
+        List<Long> ids = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(toList());
+        if (!ids.isEmpty())
+            for (Object[] row : bookingStorage.findForDecision(ids))
+                rows.put((Long) row[0], row);
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        List<BookingStatusUpdate> updates = new ArrayList<>();
+        List<BookingDecisionResultDto> updated = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            Object[] row = rows.get(decision.getBookingId());
+            BookingDecisionResultDto result = new BookingDecisionResultDto(decision.getBookingId(), null, null);
+            results.add(result);
+            if (row == null) {
+                result.setError("Такого бронирования не существует");
+                continue;
+            }
+            result.setStatus((Status) row[4]);
+            if (!seen.add(decision.getBookingId()))
+                result.setError("Бронирование уже есть в запросе");
+            else if (decision.getApproved() == null)
+                result.setError("Не задано решение по бронированию");
+            else if (row[3].equals(userId))
+                result.setError("Пользователь с id = " + userId + " не может одобрить заявку");
+            else if (!row[2].equals(userId) || row[4] != WAITING)
+                result.setError("Бронирование не может быть обновлено");
+            if (result.getError() != null) continue;
+            Status status = decision.getApproved() ? APPROVED : REJECTED;
+            updates.add(new BookingStatusUpdate((Long) row[0], (Long) row[5], status));
+            updated.add(result);
+        }
+        if (updates.isEmpty()) return results;
+        int[] counts = bookingStorage.updateStatuses(updates);
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            BookingStatusUpdate update = updates.get(i);
+            BookingDecisionResultDto result = updated.get(i);
+            if (counts[i] == 0) {
+                result.setError("Бронирование было изменено другим запросом");
+                continue;
+            }
+            Object[] row = rows.get(update.getId());
+            result.setStatus(update.getStatus());
+            if (update.getStatus() == REJECTED)
+                bookingIntervalIndex.remove((Long) row[1], update.getId(), (LocalDateTime) row[6], (LocalDateTime) row[7]);
+            itemBookingsCache.evict((Long) row[1]);
+            events.add(outboxService.event(BOOKING_STATUS_CHANGED, update.getId(), new BookingEventDto(
+                    update.getId(), (Long) row[1], (Long) row[3], update.getStatus(),
+                    (LocalDateTime) row[6], (LocalDateTime) row[7])));
+        }
+        outboxService.appendAll(events);
+        return results;
+    }
+
     @Override
     public List<BookingAllDto> getBookingsByOwner(Long userId, String state) {
-        Stream<Booking> stream = null;
-        User user = UserMapper.toUser(userService.get(userId));
-        if (state == null || ALL.name().equals(state))
-            stream = bookingStorage.findBookingsByItemOwnerIsOrderByStartDesc(user)
-                    .stream();
-        if (PAST.name().equals(state))
-            stream = bookingStorage
-                    .findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(user, now())
-                    .stream();
-        if (CURRENT.name().equals(state))
-            stream = bookingStorage
-                    .findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, now(), now())
-                    .stream();
-        if (FUTURE.name().equals(state))
-            stream = bookingStorage
-                    .findBookingsByItemOwnerAndStartAfterOrderByStartDesc(user, now())
-                    .stream();
-        if (Arrays.stream(Status.values()).anyMatch(bookingState -> bookingState.name().equals(state)))
-            stream = bookingStorage
-                    .findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state))
-                    .stream();
-        if (stream != null)
-            return stream
-                    .map(BookingMapper::mapToBookingAllFieldsDto)
-                    .collect(toList());
-        else
-            throw new IncorrectParameterException("Unknown state: " + state);
+        return getBookingsByOwner(userId, state, null, null);
     }
 
     @Override
     public List<BookingAllDto> getBookingsByOwner(Long userId, String state, Integer from, Integer size) {
-        Stream<Booking> stream = null;
-        PageRequest pageRequest = makePageRequest(from, size, Sort.by("start").descending());
-        User user = UserMapper.toUser(userService.get(userId));
-        if (state == null || state.equals(ALL.name())) {
-            if (pageRequest == null)
-                stream = bookingStorage
-                        .findBookingsByItemOwnerIsOrderByStartDesc(user)
-                        .stream();
-            else
-                stream = bookingStorage
-                        .findBookingsByItemOwnerIsOrderByStartDesc(user, pageRequest)
-                        .stream();
-        }
-        if (PAST.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingStorage
-                        .findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(user, LocalDateTime.now())
-                        .stream();
-            else
-                stream = bookingStorage
-                        .findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(user, LocalDateTime.now(), pageRequest)
-                        .stream();
-        }
-        if (CURRENT.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingStorage
-                        .findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, LocalDateTime.now(), LocalDateTime.now())
-                        .stream();
-            else
-                stream = bookingStorage
-                        .findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, LocalDateTime.now(), LocalDateTime.now(), pageRequest)
-                        .stream();
-        }
-        if (FUTURE.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingStorage
-                        .findBookingsByItemOwnerAndStartAfterOrderByStartDesc(user, now())
-                        .stream();
-            else
-                stream = bookingStorage
-                        .findBookingsByItemOwnerAndStartAfterOrderByStartDesc(user, now(), pageRequest)
-                        .stream();
-        }
-        if (Arrays.stream(Status.values()).anyMatch(bookingState -> bookingState.name().equals(state))) {
-            if (pageRequest == null)
-                stream = bookingStorage
-                        .findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state))
-                        .stream();
-            else
-                stream = bookingStorage
-                        .findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state), pageRequest)
-                        .stream();
-        }
-        if (stream != null)
-            return stream
-                    .map(BookingMapper::mapToBookingAllFieldsDto)
-                    .collect(toList());
-        else
-            throw new IncorrectParameterException("Unknown state: " + state);
+        return search(OWNER, userId, state, from, size);
+    }
+
+    @Override
+    public BookingPageDto getBookingsByOwnerAfter(Long userId, String state, String cursor, Integer size) {
+        return searchAfter(OWNER, userId, state, cursor, size);
     }
 
     @Override
@@ -176,99 +215,32 @@ public class BookingServiceImpl implements BookingService {
                 .collect(toList());
     }
 
+    @Override
+    public ItemBookingsDto getLastAndNext(Long itemId) {
+        LocalDateTime now = now();
+        return itemBookingsCache.get(itemId, now, id -> loadLastAndNext(List.of(id), now).get(id));
+    }
+
+    @Override
+    public Map<Long, ItemBookingsDto> getLastAndNext(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return Map.of();
+        LocalDateTime now = now();
+        return itemBookingsCache.getAll(itemIds, now, ids -> loadLastAndNext(ids, now));
+    }
+
     @Override
     public List<BookingAllDto> getAll(Long bookerId, String state) {
-        Stream<Booking> stream = null;
-        User user = UserMapper.toUser(userService.get(bookerId));
-        if (state == null || ALL.name().equals(state))
-            stream = bookingStorage
-                    .findBookingsByBookerIsOrderByStartDesc(user)
-                    .stream();
-        if (PAST.name().equals(state))
-            stream = bookingStorage
-                    .findBookingsByBookerIsAndEndBeforeOrderByStartDesc(user, LocalDateTime.now())
-                    .stream();
-        if (CURRENT.name().equals(state))
-            stream = bookingStorage
-                    .findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, LocalDateTime.now(), LocalDateTime.now())
-                    .stream();
-        if (FUTURE.name().equals(state))
-            stream = bookingStorage
-                    .findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(user, LocalDateTime.now())
-                    .stream();
-        if (Arrays.stream(Status.values()).anyMatch(bookingState -> bookingState.name().equals(state)))
-            stream = bookingStorage
-                    .findBookingsByBookerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state))
-                    .stream();
-        if (stream != null)
-            return stream
-                    .map(BookingMapper::mapToBookingAllFieldsDto)
-                    .collect(toList());
-        else
-            throw new IncorrectParameterException("Unknown state: " + state);
+        return getAll(bookerId, state, null, null);
     }
 
     @Override
     public List<BookingAllDto> getAll(Long bookerId, String state, Integer from, Integer size) {
-        Stream<Booking> stream = null;
-        PageRequest pageRequest = makePageRequest(from, size, Sort.by("start").descending());
-        User user = UserMapper.toUser(userService.get(bookerId));
-        if (state == null || ALL.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingStorage
-                        .findBookingsByBookerIsOrderByStartDesc(user)
-                        .stream();
-            else
-                stream = bookingStorage
-                        .findBookingsByBookerIsOrderByStartDesc(user, pageRequest)
-                        .stream();
-        }
-        if (PAST.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingStorage
-                        .findBookingsByBookerIsAndEndBeforeOrderByStartDesc(user, LocalDateTime.now())
-                        .stream();
-            else
-                stream = bookingStorage
-                        .findBookingsByBookerIsAndEndBeforeOrderByStartDesc(user, LocalDateTime.now(), pageRequest)
-                        .stream();
-        }
-        if (CURRENT.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingStorage
-                        .findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, LocalDateTime.now(), LocalDateTime.now())
-                        .stream();
-            else
-                stream = bookingStorage
-                        .findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, LocalDateTime.now(), LocalDateTime.now(), pageRequest)
-                        .stream();
-        }
-        if (FUTURE.name().equals(state)) {
-            if (pageRequest == null)
-                stream = bookingStorage
-                        .findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(user, LocalDateTime.now())
-                        .stream();
-            else
-                stream = bookingStorage
-                        .findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(user, LocalDateTime.now(), pageRequest)
-                        .stream();
-        }
-        if (Arrays.stream(Status.values()).anyMatch(bookingState -> bookingState.name().equals(state))) {
-            if (pageRequest == null)
-                stream = bookingStorage
-                        .findBookingsByBookerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state))
-                        .stream();
-            else
-                stream = bookingStorage
-                        .findBookingsByBookerIsAndStatusIsOrderByStartDesc(user, Status.valueOf(state), pageRequest)
-                        .stream();
-        }
-        if (stream != null)
-            return stream
-                    .map(BookingMapper::mapToBookingAllFieldsDto)
-                    .collect(toList());
-        else
-            throw new IncorrectParameterException("Unknown state: " + state);
+        return search(BOOKER, bookerId, state, from, size);
+    }
+
+    @Override
+    public BookingPageDto getAllAfter(Long bookerId, String state, String cursor, Integer size) {
+        return searchAfter(BOOKER, bookerId, state, cursor, size);
     }
 
     @Override
@@ -282,6 +254,133 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.mapToBookingAllFieldsDto(booking);
     }
 
+    @Override
+    public List<CalendarSlotDto> getCalendar(Long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = (from != null ? from : now()).truncatedTo(HOURS);
+        LocalDateTime end = to != null ? to : start.plusDays(DEFAULT_CALENDAR_DAYS);
+        if (!end.truncatedTo(HOURS).equals(end))
+            end = end.truncatedTo(HOURS).plusHours(1);
+        if (start.isBefore(LocalDate.now().atStartOfDay()))
+            throw new IncorrectParameterException("Календарь доступен начиная с текущего дня");
+        if (!end.isAfter(start))
+            throw new IncorrectParameterException("Некорректный период календаря");
+        if (end.isAfter(start.plusDays(MAX_CALENDAR_DAYS)))
+            throw new IncorrectParameterException("Период календаря не может превышать " + MAX_CALENDAR_DAYS + " дней");
+        BitSet busy = bookingIntervalIndex.busyHours(itemId, start, end);
+        int hours = (int) Duration.between(start, end).toHours();
+        List<CalendarSlotDto> slots = new ArrayList<>();
+        for (int hour = 0; hour < hours; ) {
+            boolean isBusy = busy.get(hour);
+            int next = isBusy ? busy.nextClearBit(hour) : busy.nextSetBit(hour);
+            if (next < 0 || next > hours) next = hours;
+            slots.add(new CalendarSlotDto(start.plusHours(hour), start.plusHours(next), isBusy));
+            hour = next;
+        }
+        return slots;
+    }
+
+    @Override
+    @Transactional
+    public ExpiredBookingsDto cancelExpired(LocalDateTime now, int limit) {
+        List<Object[]> expired = bookingStorage.findStartedBefore(WAITING, now, PageRequest.of(0, limit));
+        if (expired.isEmpty()) return new ExpiredBookingsDto(0, 0);
+        List<Long> ids = expired.stream()
+                .map(row -> (Long) row[0])
+                .collect(toList());
+        int updated = bookingStorage.updateStatus(ids, CANCELED, WAITING);
+        Set<Long> canceled = new HashSet<>(updated == ids.size()
+                ? ids
+                : bookingStorage.findIdsWithStatus(ids, CANCELED));
+        List<OutboxEvent> events = new ArrayList<>();
+        for (Object[] row : expired) {
+            if (!canceled.contains((Long) row[0])) continue;
+            bookingIntervalIndex.remove((Long) row[1], (Long) row[0], (LocalDateTime) row[2], (LocalDateTime) row[3]);
+            itemBookingsCache.evict((Long) row[1]);
+            events.add(outboxService.event(BOOKING_STATUS_CHANGED, (Long) row[0], new BookingEventDto(
+                    (Long) row[0], (Long) row[1], (Long) row[4], CANCELED,
+                    (LocalDateTime) row[2], (LocalDateTime) row[3])));
+        }
+        outboxService.appendAll(events);
+        log.info("Отменено {} неподтверждённых бронирований", canceled.size());
+        return new ExpiredBookingsDto(expired.size(), canceled.size());
+    }
+
+    private List<BookingAllDto> search(BookingQuery.Role role, Long userId, String state, Integer from, Integer size) {
+        PageRequest pageRequest = makePageRequest(from, size, Sort.unsorted());
+        if (!userService.exists(userId))
+            throw new ObjectNotFoundException("Пользователь с id = " + userId + " не найден");
+        BookingQuery.BookingQueryBuilder query = query(role, userId, state);
+        if (pageRequest != null)
+            query.offset((int) pageRequest.getOffset())
+                    .limit(pageRequest.getPageSize());
+        return bookingStorage.search(query.build())
+                .stream()
+                .map(BookingMapper::mapToBookingAllFieldsDto)
+                .collect(toList());
+    }
+
+    private BookingPageDto searchAfter(BookingQuery.Role role, Long userId, String state, String cursor, Integer size) {
+        int limit = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (limit <= 0) throw new IncorrectParameterException("size <= 0");
+        Cursor after = Cursor.decode(cursor);
+        if (!userService.exists(userId))
+            throw new ObjectNotFoundException("Пользователь с id = " + userId + " не найден");
+        BookingQuery.BookingQueryBuilder query = query(role, userId, state)
+                .limit(limit + 1);
+        if (after != null)
+            query.afterStart(after.getTime())
+                    .afterId(after.getId());
+        List<Booking> bookings = bookingStorage.search(query.build());
+        String nextCursor = null;
+        if (bookings.size() > limit) {
+            bookings = bookings.subList(0, limit);
+            Booking last = bookings.get(limit - 1);
+            nextCursor = new Cursor(last.getStart(), last.getId()).encode();
+        }
+        return new BookingPageDto(
+                bookings.stream()
+                        .map(BookingMapper::mapToBookingAllFieldsDto)
+                        .collect(toList()),
+                nextCursor);
+    }
+
+    private BookingQuery.BookingQueryBuilder query(BookingQuery.Role role, Long userId, String state) {
+        BookingQuery.BookingQueryBuilder query = BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .now(now());
+        if (state == null)
+            return query.state(ALL);
+        if (Arrays.stream(States.values()).anyMatch(bookingState -> bookingState.name().equals(state)))
+            return query.state(States.valueOf(state));
+        if (Arrays.stream(Status.values()).anyMatch(bookingState -> bookingState.name().equals(state)))
+            return query.status(Status.valueOf(state));
+        throw new IncorrectParameterException("Unknown state: " + state);
+    }
+
+    private Map<Long, ItemBookingsDto> loadLastAndNext(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingsDto> bookings = new HashMap<>();
+        for (Long itemId : itemIds)
+            bookings.put(itemId, new ItemBookingsDto());
+        for (Object[] row : bookingStorage.findLastAndNext(itemIds, now)) {
+            ItemBookingsDto itemBookings = bookings.get(((Number) row[1]).longValue());
+            BookingDto booking = new BookingDto(((Number) row[2]).longValue(), ((Number) row[3]).longValue());
+            switch (((Number) row[0]).intValue()) {
+                case BookingStorage.LAST:
+                    itemBookings.setLastBooking(booking);
+                    break;
+                case BookingStorage.NEXT:
+                    itemBookings.setNextBooking(booking);
+                    break;
+                default:
+                    itemBookings.setValidUntil(row[4] instanceof Timestamp
+                            ? ((Timestamp) row[4]).toLocalDateTime()
+                            : (LocalDateTime) row[4]);
+            }
+        }
+        return bookings;
+    }
+
     private void valid(BookingControllerDto bookingSavingDto) {
         if (bookingSavingDto.getStart() == null)
             throw new IncorrectParameterException("Не задана дата начала бронирования");
@@ -4,4 +4,15 @@ public class ObjectNotFoundException extends RuntimeException {
     public ObjectNotFoundException(String message) {
         super(message);
     }
+
+    /**
+     * Creates an exception without a stack trace, cheap enough to be thrown on a hot path or shared as a constant.
+     */
+    public static ObjectNotFoundException stackless(String message) {
+        return new ObjectNotFoundException(message, false);
+    }
+
+    private ObjectNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
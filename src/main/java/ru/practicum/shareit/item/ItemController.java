@@ -1,16 +1,24 @@
 package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.CalendarSlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+import static ru.practicum.shareit.util.Cursor.NEXT_CURSOR_HEADER;
+
 
 @RestController
 @RequestMapping("/items")
@@ -41,6 +49,20 @@ public class ItemController {
         return itemService.get(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/calendar")
+    public List<CalendarSlotDto> getCalendar(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                             @PathVariable Long itemId,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime from,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime to) {
+        return itemService.getCalendar(itemId, userId, from, to);
+    }
+
+    @GetMapping(params = "ids")
+    public List<ItemAllDto> getByIds(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                     @RequestParam List<Long> ids) {
+        return itemService.getByIds(ids, userId);
+    }
+
     @GetMapping()
     public List<ItemAllDto> getAllItems(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
                                         @RequestParam(required = false) Integer from,
@@ -56,6 +78,23 @@ public class ItemController {
         return itemService.getByText(text.toLowerCase(), userId, from, size);
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(required = false) Integer size) {
+        return itemService.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
+        CommentPageDto page = itemService.getComments(itemId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null)
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        return response.body(page.getComments());
+    }
+
     @PostMapping("{itemId}/comment")
     public CommentDto createComment(@RequestBody CommentDto commentDto,
                                     @PathVariable Long itemId,
@@ -20,4 +20,6 @@ public class ItemAllDto {
     private BookingDto lastBooking;
     private BookingDto nextBooking;
     private List<CommentDto> comments;
+    private Long commentsCount;
+    private String commentsCursor;
 }
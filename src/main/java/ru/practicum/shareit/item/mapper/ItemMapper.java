@@ -2,7 +2,9 @@ package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
@@ -60,6 +62,32 @@ public class ItemMapper {
                 .lastBooking(lastBooking != null ? new BookingDto(lastBooking.getId(), lastBooking.getBooker().getId()) : null)
                 .nextBooking(nextBooking != null ? new BookingDto(nextBooking.getId(), nextBooking.getBooker().getId()) : null)
                 .comments(comments != null ? comments : List.of())
+                .commentsCount(item.getCommentsCount())
                 .build();
     }
+
+    public static ItemAllDto toItemAllFieldsDto(Item item,
+                                                ItemBookingsDto bookings,
+                                                List<CommentDto> comments) {
+        return ItemAllDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .ownerId(item.getOwner() != null ? item.getOwner().getId() : null)
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+                .lastBooking(bookings != null ? bookings.getLastBooking() : null)
+                .nextBooking(bookings != null ? bookings.getNextBooking() : null)
+                .comments(comments != null ? comments : List.of())
+                .commentsCount(item.getCommentsCount())
+                .build();
+    }
+
+    public static ItemAllDto toItemAllFieldsDto(Item item,
+                                                ItemBookingsDto bookings,
+                                                CommentPageDto comments) {
+        ItemAllDto itemAllDto = toItemAllFieldsDto(item, bookings, comments.getComments());
+        itemAllDto.setCommentsCursor(comments.getNextCursor());
+        return itemAllDto;
+    }
 }
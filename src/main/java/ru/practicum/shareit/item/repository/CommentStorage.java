@@ -1,16 +1,36 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
-public interface CommentStorage extends JpaRepository<Comment, Long> {
+public interface CommentStorage extends JpaRepository<Comment, Long>, CommentStorageCustom {
 
+    @Override
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findAll();
+
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItem(Item item, Sort sort);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemIn(Collection<Item> items, Sort sort);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItem_IdOrderByCreatedDescIdDesc(Long itemId, Pageable pageable);
+
+    @Query("select comment from Comment comment " +
+            "join fetch comment.author " +
+            "where comment.item.id = ?1 " +
+            "and (comment.created < ?2 or (comment.created = ?2 and comment.id < ?3)) " +
+            "order by comment.created desc, comment.id desc")
+    List<Comment> findPageAfter(Long itemId, LocalDateTime created, Long id, Pageable pageable);
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Comment;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CommentStorageCustom {
+    List<Comment> findLatestByItemIdIn(Collection<Long> itemIds, int perItem);
+}
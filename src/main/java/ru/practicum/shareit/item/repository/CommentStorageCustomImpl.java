@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.query.NativeQuery;
+import ru.practicum.shareit.item.model.Comment;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Reads the newest comments of several items in one statement: row_number() ranks the comments of every item
+ * and only the first {@code perItem} of each leave the database, together with their authors.
+ */
+public class CommentStorageCustomImpl implements CommentStorageCustom {
+    private static final String LATEST = "select {c.*}, {u.*} from (" +
+            "select comments.*, " +
+            "row_number() over (partition by item_id order by created desc, id desc) as rn " +
+            "from comments where item_id in (:itemIds)" +
+            ") c join users u on u.id = c.author_id " +
+            "where c.rn <= :perItem " +
+            "order by c.created desc, c.id desc";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Comment> findLatestByItemIdIn(Collection<Long> itemIds, int perItem) {
+        if (itemIds.isEmpty()) return Collections.emptyList();
+        List<Object[]> rows = entityManager.createNativeQuery(LATEST)
+                .unwrap(NativeQuery.class)
+                .addEntity("c", Comment.class)
+                .addJoin("u", "c.author")
+                .setParameter("itemIds", itemIds)
+                .setParameter("perItem", perItem)
+                .getResultList();
+        return rows.stream()
+                .map(row -> (Comment) row[0])
+                .collect(toList());
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemStorage extends JpaRepository<Item, Long> {
@@ -27,8 +29,34 @@ public interface ItemStorage extends JpaRepository<Item, Long> {
             "like upper(concat('%', ?1, '%')))")
     List<Item> getAllText(String text, Pageable pageable);
 
+    @Query(value = "select * from items " +
+            "where available = true " +
+            "and (name ilike concat('%', ?1, '%') or description ilike concat('%', ?1, '%')) " +
+            "order by id", nativeQuery = true)
+    List<Item> getAllTextTrigram(String text);
+
+    @Query(value = "select * from items " +
+            "where available = true " +
+            "and (name ilike concat('%', ?1, '%') or description ilike concat('%', ?1, '%')) " +
+            "order by id", nativeQuery = true)
+    List<Item> getAllTextTrigram(String text, Pageable pageable);
+
     List<Item> findAllByOwner_IdIs(Long ownerId);
 
+    @Query("select item from Item item " +
+            "join fetch item.owner " +
+            "left join fetch item.request request " +
+            "left join fetch request.requester " +
+            "where item.id in ?1")
+    List<Item> findAllWithOwnerByIdIn(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Item item set item.commentsCount = item.commentsCount + 1 where item.id = ?1")
+    int incrementCommentsCount(Long itemId);
+
+    @Query("select item.id, item.name, item.description, item.available from Item item")
+    List<Object[]> findSearchFields();
+
     List<Item> findAllByRequestIn(List<ItemRequest> requests);
 
     List<Item> findAllByRequest_IdIs(Long requestId);
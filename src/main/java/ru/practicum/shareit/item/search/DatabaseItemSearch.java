@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemStorage;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Leaves item search to the database. On PostgreSQL the query is an ILIKE that the pg_trgm GIN indexes
+ * from schema-postgresql.sql can serve, any other database gets the portable JPQL query.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "shareit.items.search.backend", havingValue = "database")
+public class DatabaseItemSearch implements ItemSearch {
+    private final ItemStorage itemStorage;
+    private final boolean trigram;
+
+    @Autowired
+    public DatabaseItemSearch(ItemStorage itemStorage, DataSource dataSource) {
+        this(itemStorage, isPostgres(dataSource));
+    }
+
+    DatabaseItemSearch(ItemStorage itemStorage, boolean trigram) {
+        this.itemStorage = itemStorage;
+        this.trigram = trigram;
+        log.info("Поиск вещей выполняется {}", trigram ? "через pg_trgm" : "через JPQL");
+    }
+
+    @Override
+    public List<Item> search(String text, PageRequest pageRequest) {
+        if (!trigram)
+            return pageRequest == null ? itemStorage.getAllText(text) : itemStorage.getAllText(text, pageRequest);
+        if (pageRequest == null)
+            return itemStorage.getAllTextTrigram(text);
+        return itemStorage.getAllTextTrigram(text, PageRequest.of(pageRequest.getPageNumber(), pageRequest.getPageSize()));
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Не удалось определить тип базы данных: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemStorage;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Relevance-ranked substring and typo-tolerant search over item name and description kept in memory.
+ * Queries shorter than a trigram cannot use the index and are left to the database.
+ * Writes are applied immediately and undone if the surrounding transaction rolls back.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "shareit.items.search.backend", havingValue = "memory", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearch {
+    private final TrigramIndex index = new TrigramIndex();
+    private final ItemStorage itemStorage;
+
+    public ItemSearchIndex(ItemStorage itemStorage) {
+        this.itemStorage = itemStorage;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Object[]> rows = itemStorage.findSearchFields();
+        for (Object[] row : rows)
+            index.put((Long) row[0], (String) row[1], (String) row[2], (Boolean) row[3]);
+        log.info("Поисковый индекс вещей загружен: {} вещей", rows.size());
+    }
+
+    @Override
+    public List<Item> search(String text, PageRequest pageRequest) {
+        if (text.length() < TrigramIndex.GRAM)
+            return pageRequest == null ? itemStorage.getAllText(text) : itemStorage.getAllText(text, pageRequest);
+        List<Long> ids = pageRequest == null
+                ? index.search(text, 0, Integer.MAX_VALUE)
+                : index.search(text, pageRequest.getOffset(), pageRequest.getPageSize());
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++)
+            rank.put(ids.get(i), i);
+        return itemStorage.findAllById(ids).stream()
+                .sorted(Comparator.comparing(item -> rank.get(item.getId())))
+                .collect(toList());
+    }
+
+    @Override
+    public void put(Item item) {
+        long id = item.getId();
+        TrigramIndex.Doc previous = index.put(id, item.getName(), item.getDescription(), item.getAvailable());
+        TransactionHooks.onRollback(() -> {
+            if (previous == null)
+                index.remove(id);
+            else
+                index.put(id, previous.name, previous.description, previous.available);
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemStorage;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Name completions of available items, ranked by how many available items share the name.
+ * Writes are applied immediately and undone if the surrounding transaction rolls back.
+ */
+@Slf4j
+@Component
+public class ItemSuggestions {
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final NameTrie trie = new NameTrie(MAX_SUGGESTIONS);
+    private final Map<Long, String> names = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ItemStorage itemStorage;
+
+    public ItemSuggestions(ItemStorage itemStorage, MeterRegistry meterRegistry) {
+        this.itemStorage = itemStorage;
+        meterRegistry.gauge("shareit.items.suggest.memory.bytes", this, ItemSuggestions::estimateBytes);
+        meterRegistry.gauge("shareit.items.suggest.names", this, ItemSuggestions::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (Object[] row : itemStorage.findSearchFields())
+            if ((Boolean) row[3]) apply((Long) row[0], (String) row[1]);
+        log.info("Подсказки по названиям вещей загружены: {} названий, около {} байт", size(), estimateBytes());
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = TrigramIndex.normalize(prefix);
+        lock.readLock().lock();
+        try {
+            return trie.top(key, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        long id = item.getId();
+        String previous = apply(id, item.getAvailable() ? item.getName() : null);
+        TransactionHooks.onRollback(() -> apply(id, previous));
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long estimateBytes() {
+        lock.readLock().lock();
+        try {
+            return trie.estimateBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String apply(long id, String name) {
+        lock.writeLock().lock();
+        try {
+            String previous = name == null ? names.remove(id) : names.put(id, name);
+            if (previous != null) trie.remove(TrigramIndex.normalize(previous));
+            if (name != null) trie.add(TrigramIndex.normalize(name), name);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
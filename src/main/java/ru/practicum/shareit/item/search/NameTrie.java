@@ -0,0 +1,234 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Radix trie of normalized item names. Every node keeps the k most frequent completions below it,
+ * so a lookup costs one walk down the prefix and no traversal of the subtree.
+ * Adding a name touches only the top lists on its path, removing one rebuilds those lists that contained it.
+ * Not thread-safe, callers guard it.
+ */
+class NameTrie {
+    private static final Completion[] NO_COMPLETIONS = new Completion[0];
+    private static final Comparator<Completion> RANK = Comparator.comparingInt((Completion completion) -> -completion.count)
+            .thenComparing(completion -> completion.key);
+
+    private final int k;
+    private final Node root = new Node("");
+    private int size;
+
+    NameTrie(int k) {
+        this.k = k;
+    }
+
+    void add(String key, String name) {
+        add(root, key, 0, name);
+    }
+
+    void remove(String key) {
+        remove(root, key, 0);
+    }
+
+    List<String> top(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) return List.of();
+            int common = commonPrefix(child.label, prefix, i);
+            if (common < child.label.length() && i + common < prefix.length()) return List.of();
+            i += common;
+            node = child;
+        }
+        List<String> names = new ArrayList<>();
+        for (int j = 0; j < node.top.length && j < limit; j++)
+            names.add(node.top[j].name);
+        return names;
+    }
+
+    /**
+     * Distinct names currently stored.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Rough heap footprint assuming compressed references: object headers, fields, arrays and label characters.
+     */
+    long estimateBytes() {
+        return estimateBytes(root);
+    }
+
+    private Completion add(Node node, String key, int i, String name) {
+        Completion completion;
+        if (i == key.length()) {
+            if (node.terminal == null) {
+                node.terminal = new Completion(key, name);
+                size++;
+            }
+            completion = node.terminal;
+            completion.count++;
+        } else {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.insert(child);
+                completion = add(child, key, key.length(), name);
+            } else {
+                int common = commonPrefix(child.label, key, i);
+                if (common < child.label.length()) {
+                    Node middle = new Node(child.label.substring(0, common));
+                    node.replace(child, middle);
+                    child.label = child.label.substring(common);
+                    middle.insert(child);
+                    middle.top = child.top.clone();
+                    child = middle;
+                }
+                completion = add(child, key, i + common, name);
+            }
+        }
+        promote(node, completion);
+        return completion;
+    }
+
+    private Completion remove(Node node, String key, int i) {
+        Completion completion;
+        if (i == key.length()) {
+            completion = node.terminal;
+            if (completion == null) return null;
+            if (--completion.count == 0) {
+                node.terminal = null;
+                size--;
+            }
+        } else {
+            Node child = node.child(key.charAt(i));
+            if (child == null) return null;
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) return null;
+            completion = remove(child, key, i + common);
+            if (completion == null) return null;
+            if (child.terminal == null && child.children.length == 0) {
+                node.delete(child);
+            } else if (child.terminal == null && child.children.length == 1) {
+                Node grandchild = child.children[0];
+                grandchild.label = child.label + grandchild.label;
+                node.replace(child, grandchild);
+            }
+        }
+        if (Arrays.asList(node.top).contains(completion)) refresh(node);
+        return completion;
+    }
+
+    /**
+     * A completion whose count grew can only move up, so it is placed into the node's top without looking at the children.
+     */
+    private void promote(Node node, Completion completion) {
+        Completion[] top = node.top;
+        int index = Arrays.asList(top).indexOf(completion);
+        if (index < 0) {
+            if (top.length < k) {
+                top = Arrays.copyOf(top, top.length + 1);
+                index = top.length - 1;
+            } else if (RANK.compare(completion, top[top.length - 1]) < 0) {
+                index = top.length - 1;
+            } else {
+                return;
+            }
+            top[index] = completion;
+        }
+        for (; index > 0 && RANK.compare(top[index], top[index - 1]) < 0; index--) {
+            Completion swap = top[index - 1];
+            top[index - 1] = top[index];
+            top[index] = swap;
+        }
+        node.top = top;
+    }
+
+    private void refresh(Node node) {
+        List<Completion> candidates = new ArrayList<>();
+        if (node.terminal != null) candidates.add(node.terminal);
+        for (Node child : node.children)
+            candidates.addAll(Arrays.asList(child.top));
+        candidates.sort(RANK);
+        node.top = candidates.isEmpty()
+                ? NO_COMPLETIONS
+                : candidates.subList(0, Math.min(k, candidates.size())).toArray(NO_COMPLETIONS);
+    }
+
+    private long estimateBytes(Node node) {
+        long bytes = 32 + 24 + 16 + 2L * node.label.length()
+                + 16 + 4L * node.children.length
+                + 16 + 2L * node.keys.length
+                + (node.top.length == 0 ? 0 : 16 + 4L * node.top.length);
+        if (node.terminal != null) bytes += 24 + 24 + 16 + 2L * node.terminal.name.length();
+        for (Node child : node.children)
+            bytes += estimateBytes(child);
+        return bytes;
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int common = 0;
+        while (common < label.length() && from + common < key.length()
+                && label.charAt(common) == key.charAt(from + common))
+            common++;
+        return common;
+    }
+
+    private static final class Completion {
+        private final String key;
+        private final String name;
+        private int count;
+
+        private Completion(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+    }
+
+    private static final class Node {
+        private String label;
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Completion terminal;
+        private Completion[] top = NO_COMPLETIONS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : children[index];
+        }
+
+        void insert(Node child) {
+            int index = -Arrays.binarySearch(keys, child.label.charAt(0)) - 1;
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(keys, index, keys, index + 1, keys.length - index - 1);
+            System.arraycopy(children, index, children, index + 1, children.length - index - 1);
+            keys[index] = child.label.charAt(0);
+            children[index] = child;
+        }
+
+        void replace(Node child, Node replacement) {
+            children[Arrays.binarySearch(keys, child.label.charAt(0))] = replacement;
+        }
+
+        void delete(Node child) {
+            int index = Arrays.binarySearch(keys, child.label.charAt(0));
+            char[] remainingKeys = new char[keys.length - 1];
+            Node[] remainingChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, remainingKeys, 0, index);
+            System.arraycopy(keys, index + 1, remainingKeys, index, keys.length - index - 1);
+            System.arraycopy(children, 0, remainingChildren, 0, index);
+            System.arraycopy(children, index + 1, remainingChildren, index, children.length - index - 1);
+            keys = remainingKeys;
+            children = remainingChildren;
+        }
+    }
+}
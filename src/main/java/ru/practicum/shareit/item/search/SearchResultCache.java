@@ -0,0 +1,187 @@
+package ru.practicum.shareit.item.search;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of serialized search result pages keyed by normalized query text and page.
+ * An item write evicts only the pages whose query could match the item's old or new text:
+ * the whole query or one of its tokens is a substring of it, or a token is within the search's edit distance of its terms.
+ */
+@Component
+public class SearchResultCache {
+    private static final TypeReference<List<ItemDto>> PAGE = new TypeReference<>() {
+    };
+
+    private final Map<Key, Entry> entries;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public SearchResultCache(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.items.search.cache.max-size:1000}") int maxSize,
+                             @Value("${shareit.items.search.cache.ttl:1m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = meterRegistry.counter("shareit.items.search.cache.hits");
+        this.misses = meterRegistry.counter("shareit.items.search.cache.misses");
+        this.evictions = meterRegistry.counter("shareit.items.search.cache.evictions");
+        meterRegistry.gauge("shareit.items.search.cache.hit.ratio", this, SearchResultCache::hitRatio);
+        meterRegistry.gauge("shareit.items.search.cache.size", this, SearchResultCache::size);
+    }
+
+    public List<ItemDto> get(String text, Integer from, Integer size, Supplier<List<ItemDto>> loader) {
+        Key key = new Key(TrigramIndex.normalize(text), from, size);
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && now - entry.expiresAt < 0) {
+            hits.increment();
+            return read(entry.page);
+        }
+        misses.increment();
+        List<ItemDto> page = loader.get();
+        Entry loaded = new Entry(key.query, write(page), now + ttlNanos);
+        synchronized (entries) {
+            entries.put(key, loaded);
+        }
+        return page;
+    }
+
+    /**
+     * Evicts the pages that may change because an item had or now has the given name and description texts.
+     */
+    public void evict(String... texts) {
+        List<String> normalized = new ArrayList<>(texts.length);
+        List<String> terms = new ArrayList<>();
+        for (String text : texts) {
+            if (text == null) continue;
+            String value = TrigramIndex.normalize(text);
+            normalized.add(value);
+            terms.addAll(List.of(TrigramIndex.tokens(value)));
+        }
+        evict(normalized, terms);
+        TransactionHooks.afterCompletion(() -> evict(normalized, terms));
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evict(List<String> texts, List<String> terms) {
+        int evicted = 0;
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext())
+                if (affects(iterator.next(), texts, terms)) {
+                    iterator.remove();
+                    evicted++;
+                }
+        }
+        evictions.increment(evicted);
+    }
+
+    private static boolean affects(Entry entry, List<String> texts, List<String> terms) {
+        for (String text : texts)
+            if (text.contains(entry.query)) return true;
+        for (String token : entry.tokens) {
+            for (String text : texts)
+                if (text.contains(token)) return true;
+            int maxDistance = TermDictionary.maxDistance(token);
+            if (maxDistance == 0) continue;
+            for (String term : terms)
+                if (TermDictionary.distance(token, term, maxDistance) <= maxDistance) return true;
+        }
+        return false;
+    }
+
+    private byte[] write(List<ItemDto> page) {
+        try {
+            return objectMapper.writeValueAsBytes(page);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<ItemDto> read(byte[] page) {
+        try {
+            return objectMapper.readValue(page, PAGE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Key {
+        private final String query;
+        private final Integer from;
+        private final Integer size;
+
+        private Key(String query, Integer from, Integer size) {
+            this.query = query;
+            this.from = from;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return query.equals(key.query) && Objects.equals(from, key.from) && Objects.equals(size, key.size);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, from, size);
+        }
+    }
+
+    private static final class Entry {
+        private final String query;
+        private final String[] tokens;
+        private final byte[] page;
+        private final long expiresAt;
+
+        private Entry(String query, byte[] page, long expiresAt) {
+            this.query = query;
+            this.tokens = TrigramIndex.tokens(query);
+            this.page = page;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
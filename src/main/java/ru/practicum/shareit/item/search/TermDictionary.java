@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Terms of the indexed items with their document frequencies and a symmetric delete dictionary:
+ * every term is reachable from each of its variants with up to {@link #MAX_DISTANCE} characters deleted,
+ * so the terms within a small edit distance of a query token are found by looking up the token's own deletes.
+ */
+class TermDictionary {
+    static final int MAX_DISTANCE = 2;
+
+    private final Map<String, Integer> documentFrequency = new HashMap<>();
+    private final Map<String, Set<String>> deletes = new HashMap<>();
+
+    static int maxDistance(String token) {
+        if (token.length() < 4) return 0;
+        return token.length() < 8 ? 1 : MAX_DISTANCE;
+    }
+
+    void add(String term) {
+        if (documentFrequency.merge(term, 1, Integer::sum) > 1) return;
+        for (String variant : variants(term, MAX_DISTANCE))
+            deletes.computeIfAbsent(variant, key -> new HashSet<>()).add(term);
+    }
+
+    void remove(String term) {
+        Integer frequency = documentFrequency.get(term);
+        if (frequency == null) return;
+        if (frequency > 1) {
+            documentFrequency.put(term, frequency - 1);
+            return;
+        }
+        documentFrequency.remove(term);
+        for (String variant : variants(term, MAX_DISTANCE)) {
+            Set<String> terms = deletes.get(variant);
+            if (terms != null && terms.remove(term) && terms.isEmpty()) deletes.remove(variant);
+        }
+    }
+
+    int documentFrequency(String term) {
+        return documentFrequency.getOrDefault(term, 0);
+    }
+
+    /**
+     * Terms within {@link #maxDistance(String)} edits of the token, mapped to their distance.
+     */
+    Map<String, Integer> similar(String token) {
+        int maxDistance = maxDistance(token);
+        Map<String, Integer> similar = new HashMap<>();
+        for (String variant : variants(token, maxDistance))
+            for (String term : deletes.getOrDefault(variant, Collections.emptySet())) {
+                if (similar.containsKey(term)) continue;
+                int distance = distance(token, term, maxDistance);
+                if (distance <= maxDistance) similar.put(term, distance);
+            }
+        return similar;
+    }
+
+    private static Set<String> variants(String word, int maxDistance) {
+        Set<String> variants = new HashSet<>();
+        variants.add(word);
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(word);
+        while (!queue.isEmpty()) {
+            String current = queue.poll();
+            if (word.length() - current.length() >= maxDistance || current.length() <= 1) continue;
+            for (int i = 0; i < current.length(); i++) {
+                String variant = current.substring(0, i) + current.substring(i + 1);
+                if (variants.add(variant)) queue.add(variant);
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Levenshtein distance, or {@code maxDistance + 1} as soon as it is known to exceed the bound.
+     */
+    static int distance(String first, String second, int maxDistance) {
+        if (Math.abs(first.length() - second.length()) > maxDistance) return maxDistance + 1;
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++)
+            previous[j] = j;
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= second.length(); j++) {
+                int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) return maxDistance + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[second.length()], maxDistance + 1);
+    }
+}
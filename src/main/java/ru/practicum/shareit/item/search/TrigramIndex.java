@@ -0,0 +1,308 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from character trigrams of item name and description to sorted item ids.
+ * A query is answered by intersecting the posting lists of its trigrams, starting from the shortest,
+ * and checking the remaining candidates with a plain substring match.
+ * Items whose terms all lie within a small edit distance of the query tokens match as well.
+ * Matches are ranked with BM25 over name and description, and only the requested page is kept on a bounded heap.
+ * Available item ids are kept in a bitset checked before any posting list is intersected,
+ * so unavailable items never reach verification or scoring.
+ */
+class TrigramIndex {
+    static final int GRAM = 3;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_BOOST = 2.0;
+    private static final double NAME_PHRASE_BONUS = 1.0;
+    private static final double DESCRIPTION_PHRASE_BONUS = 0.5;
+    private static final Comparator<Hit> RANK = Comparator.comparingDouble((Hit hit) -> -hit.score)
+            .thenComparingLong(hit -> hit.id);
+
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<String, Postings> termPostings = new HashMap<>();
+    private final TermDictionary terms = new TermDictionary();
+    private final BitSet available = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    static String[] tokens(String normalized) {
+        return Arrays.stream(normalized.split("[^\\p{L}\\p{Nd}]+"))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    Doc put(long id, String name, String description, boolean available) {
+        Doc doc = new Doc(id, name, description, available);
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.put(id, doc);
+            if (previous != null) unlink(previous);
+            if (available && id <= Integer.MAX_VALUE) this.available.set((int) id);
+            for (long gram : doc.grams)
+                postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+            for (String term : doc.terms) {
+                termPostings.computeIfAbsent(term, key -> new Postings()).add(id);
+                terms.add(term);
+            }
+            totalNameLength += doc.nameLength;
+            totalDescriptionLength += doc.descriptionLength;
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Doc remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.remove(id);
+            if (previous != null) unlink(previous);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the available matches ranked by relevance, skipping {@code offset} and returning at most {@code limit}.
+     */
+    List<Long> search(String text, long offset, int limit) {
+        String query = normalize(text);
+        String[] tokens = tokens(query);
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>(substringMatches(query));
+            List<Map<String, Integer>> expansions = new ArrayList<>(tokens.length);
+            for (String token : tokens)
+                expansions.add(terms.similar(token));
+            candidates.addAll(termMatches(expansions));
+
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 1, offset + limit);
+            PriorityQueue<Hit> heap = new PriorityQueue<>(Math.min(capacity, 64) + 1, RANK.reversed());
+            for (Long id : candidates) {
+                heap.add(new Hit(id, score(docs.get(id), query, expansions)));
+                if (heap.size() > capacity) heap.poll();
+            }
+            List<Hit> hits = new ArrayList<>(heap);
+            hits.sort(RANK);
+            List<Long> page = new ArrayList<>();
+            for (int i = (int) Math.min(offset, hits.size()); i < hits.size() && page.size() < limit; i++)
+                page.add(hits.get(i).id);
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> substringMatches(String query) {
+        if (query.length() < GRAM) return List.of();
+        long[] grams = grams(query);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) return List.of();
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        Postings shortest = lists[0];
+        List<Long> result = new ArrayList<>();
+        candidates:
+        for (int i = 0; i < shortest.size; i++) {
+            long id = shortest.ids[i];
+            if (!isAvailable(id)) continue;
+            for (int j = 1; j < lists.length; j++)
+                if (!lists[j].contains(id)) continue candidates;
+            if (docs.get(id).matches(query)) result.add(id);
+        }
+        return result;
+    }
+
+    private Set<Long> termMatches(List<Map<String, Integer>> expansions) {
+        if (expansions.isEmpty()) return Set.of();
+        Set<Long> result = null;
+        for (Map<String, Integer> expansion : expansions) {
+            Set<Long> ids = new HashSet<>();
+            for (String term : expansion.keySet()) {
+                Postings list = termPostings.get(term);
+                for (int i = 0; i < list.size; i++)
+                    if (isAvailable(list.ids[i]) && (result == null || result.contains(list.ids[i])))
+                        ids.add(list.ids[i]);
+            }
+            result = ids;
+            if (result.isEmpty()) break;
+        }
+        return result;
+    }
+
+    private boolean isAvailable(long id) {
+        return id <= Integer.MAX_VALUE ? available.get((int) id) : docs.get(id).available;
+    }
+
+    private double score(Doc doc, String query, List<Map<String, Integer>> expansions) {
+        double averageName = Math.max(1.0, (double) totalNameLength / docs.size());
+        double averageDescription = Math.max(1.0, (double) totalDescriptionLength / docs.size());
+        double score = 0;
+        for (Map<String, Integer> expansion : expansions) {
+            double best = 0;
+            for (Map.Entry<String, Integer> entry : expansion.entrySet()) {
+                String term = entry.getKey();
+                if (!doc.terms.contains(term)) continue;
+                double frequency = NAME_BOOST * saturate(doc.nameTerms.getOrDefault(term, 0), doc.nameLength, averageName)
+                        + saturate(doc.descriptionTerms.getOrDefault(term, 0), doc.descriptionLength, averageDescription);
+                best = Math.max(best, idf(term) * frequency / (1 + entry.getValue()));
+            }
+            score += best;
+        }
+        if (doc.normalizedName.contains(query)) score += NAME_PHRASE_BONUS;
+        if (doc.normalizedDescription.contains(query)) score += DESCRIPTION_PHRASE_BONUS;
+        return score;
+    }
+
+    private double idf(String term) {
+        int frequency = terms.documentFrequency(term);
+        return Math.log(1 + (docs.size() - frequency + 0.5) / (frequency + 0.5));
+    }
+
+    private static double saturate(int frequency, int length, double averageLength) {
+        if (frequency == 0) return 0;
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private void unlink(Doc doc) {
+        if (doc.id <= Integer.MAX_VALUE) available.clear((int) doc.id);
+        for (long gram : doc.grams) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(doc.id) && list.size == 0) postings.remove(gram);
+        }
+        for (String term : doc.terms) {
+            Postings list = termPostings.get(term);
+            if (list != null && list.remove(doc.id) && list.size == 0) termPostings.remove(term);
+            terms.remove(term);
+        }
+        totalNameLength -= doc.nameLength;
+        totalDescriptionLength -= doc.descriptionLength;
+    }
+
+    private static long[] grams(String... texts) {
+        long[] grams = new long[0];
+        int count = 0;
+        for (String text : texts) {
+            if (text.length() < GRAM) continue;
+            grams = Arrays.copyOf(grams, count + text.length() - GRAM + 1);
+            for (int i = 0; i + GRAM <= text.length(); i++)
+                grams[count++] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams, 0, count).sorted().distinct().toArray();
+    }
+
+    private static Map<String, Integer> frequencies(String[] tokens) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens)
+            frequencies.merge(token, 1, Integer::sum);
+        return frequencies;
+    }
+
+    static final class Doc {
+        final long id;
+        final String name;
+        final String description;
+        final boolean available;
+        private final String normalizedName;
+        private final String normalizedDescription;
+        private final long[] grams;
+        private final Map<String, Integer> nameTerms;
+        private final Map<String, Integer> descriptionTerms;
+        private final Set<String> terms;
+        private final int nameLength;
+        private final int descriptionLength;
+
+        private Doc(long id, String name, String description, boolean available) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+            this.normalizedName = normalize(name);
+            this.normalizedDescription = normalize(description);
+            this.grams = grams(normalizedName, normalizedDescription);
+            String[] nameTokens = tokens(normalizedName);
+            String[] descriptionTokens = tokens(normalizedDescription);
+            this.nameTerms = frequencies(nameTokens);
+            this.descriptionTerms = frequencies(descriptionTokens);
+            this.terms = new HashSet<>(nameTerms.keySet());
+            this.terms.addAll(descriptionTerms.keySet());
+            this.nameLength = nameTokens.length;
+            this.descriptionLength = descriptionTokens.length;
+        }
+
+        boolean matches(String query) {
+            return normalizedName.contains(query) || normalizedDescription.contains(query);
+        }
+    }
+
+    private static final class Hit {
+        private final long id;
+        private final double score;
+
+        private Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) return;
+            index = -index - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) return false;
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -1,26 +1,37 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.CalendarSlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemAllDto get(Long id, Long userId);
 
+    List<ItemAllDto> getByIds(List<Long> ids, Long userId);
+
     ItemDto save(ItemDto item, ItemRequestDto itemRequestDto, Long userId);
 
     ItemDto update(ItemDto item, Long id, Long userId);
 
+    List<CalendarSlotDto> getCalendar(Long itemId, Long userId, LocalDateTime from, LocalDateTime to);
+
     List<ItemAllDto> getAll(Long id, Integer from, Integer size);
 
     List<ItemDto> getByText(String text, Long userId, Integer from, Integer size);
 
+    List<String> suggest(String prefix, Integer size);
+
     CommentDto createComment(CommentDto comment, Long itemId, Long userId);
 
+    CommentPageDto getComments(Long itemId, String cursor, Integer size);
+
     List<CommentDto> getAllComments();
 
     List<ItemDto> getItemsByRequests(List<ItemRequest> requests);
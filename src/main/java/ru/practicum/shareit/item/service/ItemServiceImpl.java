@@ -6,10 +6,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
+import ru.practicum.shareit.booking.dto.CalendarSlotDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.errors.exception.IncorrectParameterException;
 import ru.practicum.shareit.errors.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -18,12 +21,17 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentStorage;
 import ru.practicum.shareit.item.repository.ItemStorage;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSuggestions;
+import ru.practicum.shareit.item.search.SearchResultCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.Cursor;
+import ru.practicum.shareit.util.LongObjectMap;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
@@ -31,7 +39,6 @@ import java.util.*;
 import java.util.stream.Collectors;
 import static java.util.stream.Collectors.*;
 
-import static org.springframework.data.domain.Sort.Direction.DESC;
 import static ru.practicum.shareit.Enums.States.PAST;
 import static ru.practicum.shareit.util.Pagination.makePageRequest;
 
@@ -40,32 +47,78 @@ import static ru.practicum.shareit.util.Pagination.makePageRequest;
 @Service
 @Transactional
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_BATCH_SIZE = 100;
+    static final int COMMENTS_PAGE_SIZE = 10;
+
     private final ItemStorage itemStorage;
     private final UserService userService;
     private final CommentStorage commentStorage;
     private final BookingService bookingService;
+    private final ItemSearch itemSearch;
+    private final SearchResultCache searchResultCache;
+    private final ItemSuggestions itemSuggestions;
 
     @Autowired
     public ItemServiceImpl(ItemStorage itemStorage,
                            UserService userService,
                            CommentStorage commentStorage,
-                           BookingService bookingService) {
+                           BookingService bookingService,
+                           ItemSearch itemSearch,
+                           SearchResultCache searchResultCache,
+                           ItemSuggestions itemSuggestions) {
         this.itemStorage = itemStorage;
         this.userService = userService;
         this.commentStorage = commentStorage;
         this.bookingService = bookingService;
+        this.itemSearch = itemSearch;
+        this.searchResultCache = searchResultCache;
+        this.itemSuggestions = itemSuggestions;
     }
 
     @Override
     public ItemAllDto get(Long id, Long userId) {
         Item item = itemStorage.findById(id).orElseThrow(
                 () -> new ObjectNotFoundException("Вещь с id " + id + " не найдена"));
-        List<Comment> comments = commentStorage.findByItem(item, Sort.by(DESC, "created"));
-        List<BookingAllDto> bookings = bookingService.getBookingsByItem(item.getId(), userId);
-        return ItemMapper.toItemAllFieldsDto(item,
-               getLastItem(bookings),
-               getNextItem(bookings),
-               comments.stream().map(CommentMapper::toCommentDto).collect(toList()));
+        ItemBookingsDto bookings = item.getOwner().getId().equals(userId)
+                ? bookingService.getLastAndNext(item.getId())
+                : null;
+        return ItemMapper.toItemAllFieldsDto(item, bookings, getCommentPage(item.getId(), null, COMMENTS_PAGE_SIZE));
+    }
+
+    @Override
+    public CommentPageDto getComments(Long itemId, String cursor, Integer size) {
+        if (size != null && size <= 0)
+            throw new IncorrectParameterException("size <= 0");
+        if (!itemStorage.existsById(itemId))
+            throw new ObjectNotFoundException("Вещь с id " + itemId + " не найдена");
+        return getCommentPage(itemId, Cursor.decode(cursor), size == null ? COMMENTS_PAGE_SIZE : size);
+    }
+
+    @Override
+    @Transactional
+    public List<ItemAllDto> getByIds(List<Long> ids, Long userId) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(toList());
+        if (distinctIds.isEmpty()) return Collections.emptyList();
+        if (distinctIds.size() > MAX_BATCH_SIZE)
+            throw new IncorrectParameterException("Нельзя запросить больше " + MAX_BATCH_SIZE + " вещей за раз");
+        Map<Long, Item> items = itemStorage.findAllWithOwnerByIdIn(distinctIds).stream()
+                .collect(toMap(Item::getId, item -> item));
+        LongObjectMap<List<Comment>> comments = groupByItem(
+                commentStorage.findLatestByItemIdIn(items.keySet(), COMMENTS_PAGE_SIZE + 1),
+                items.size());
+        List<Long> ownedIds = items.values().stream()
+                .filter(item -> item.getOwner().getId().equals(userId))
+                .map(Item::getId)
+                .collect(toList());
+        Map<Long, ItemBookingsDto> bookings = ownedIds.isEmpty()
+                ? Collections.emptyMap()
+                : bookingService.getLastAndNext(ownedIds);
+        return distinctIds.stream()
+                .filter(items::containsKey)
+                .map(id -> ItemMapper.toItemAllFieldsDto(items.get(id),
+                        bookings.get(id),
+                        toCommentPage(comments.get(id), COMMENTS_PAGE_SIZE)))
+                .collect(toList());
     }
 
     @Override
@@ -78,7 +131,11 @@ public class ItemServiceImpl implements ItemService {
         if (itemRequestDto != null)
             item.setRequest(ItemRequestMapper.mapToItemRequest(
                     itemRequestDto, userService.get(itemRequestDto.getRequesterId())));
-        return ItemMapper.toItemDto(itemStorage.save(item));
+        Item savedItem = itemStorage.save(item);
+        itemSearch.put(savedItem);
+        itemSuggestions.put(savedItem);
+        searchResultCache.evict(savedItem.getName(), savedItem.getDescription());
+        return ItemMapper.toItemDto(savedItem);
     }
 
 
@@ -94,6 +151,8 @@ public class ItemServiceImpl implements ItemService {
         if (!item.getOwner().getId().equals(userId)) {
             throw new ObjectNotFoundException("Пользователь с id=" + userId + " не является владельцем вещи с id=" + id);
         }
+        String previousName = item.getName();
+        String previousDescription = item.getDescription();
 
         String patchName = itemDto.getName();
         if (Objects.nonNull(patchName) && !patchName.isEmpty()) {
@@ -109,10 +168,23 @@ public class ItemServiceImpl implements ItemService {
         if (Objects.nonNull(patchAvailable)) {
             item.setAvailable(patchAvailable);
         }
-        return ItemMapper.toItemDto(itemStorage.save(item));
+        Item savedItem = itemStorage.save(item);
+        itemSearch.put(savedItem);
+        itemSuggestions.put(savedItem);
+        searchResultCache.evict(previousName, previousDescription, savedItem.getName(), savedItem.getDescription());
+        return ItemMapper.toItemDto(savedItem);
     }
 
 
+    @Override
+    public List<CalendarSlotDto> getCalendar(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
+        Item item = itemStorage.findById(itemId).orElseThrow(
+                () -> new ObjectNotFoundException("Вещь с id " + itemId + " не найдена"));
+        if (!item.getOwner().getId().equals(userId))
+            throw new ObjectNotFoundException("Пользователь с id=" + userId + " не является владельцем вещи с id=" + itemId);
+        return bookingService.getCalendar(itemId, from, to);
+    }
+
     @Override
     public List<ItemAllDto> getAll(Long id, Integer from, Integer size) {
         List<Item> allItems;
@@ -124,12 +196,16 @@ public class ItemServiceImpl implements ItemService {
             } else {
                 allItems = itemStorage.findAllByOwner_IdIs(id, pageRequest);
             }
-            List<Comment> comments = commentStorage.findByItemIn(allItems, Sort.by(DESC, "created"));
-            Map<Long, List<BookingAllDto>> bookings = bookingService.getBookingsByOwner(id, null).stream()
-                    .collect(groupingBy((BookingAllDto bookingExtendedDto) -> bookingExtendedDto.getItem().getId()));
+            List<Long> itemIds = allItems.stream().map(Item::getId).collect(toList());
+            LongObjectMap<List<Comment>> comments = groupByItem(
+                    commentStorage.findLatestByItemIdIn(itemIds, COMMENTS_PAGE_SIZE + 1),
+                    allItems.size());
+            Map<Long, ItemBookingsDto> bookings = bookingService.getLastAndNext(itemIds);
 
             return  allItems.stream()
-                    .map(item -> getItemAllFieldsDto(comments, bookings, item))
+                    .map(item -> ItemMapper.toItemAllFieldsDto(item,
+                            bookings.get(item.getId()),
+                            toCommentPage(comments.get(item.getId()), COMMENTS_PAGE_SIZE)))
                     .collect(toList());
         } else {
 
@@ -139,14 +215,20 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<ItemDto> getByText(String text, Long userId, Integer from, Integer size) {
-        List<Item> items;
         if (text.isBlank()) return Collections.emptyList();
-        PageRequest pageRequest = makePageRequest(from, size, Sort.by("id").ascending());
-        if (pageRequest == null)
-            items = itemStorage.getAllText(text);
-        else
-            items = itemStorage.getAllText(text, pageRequest);
-        return items.stream().map(ItemMapper::toItemDto).collect(toList());
+        return searchResultCache.get(text, from, size, () -> {
+            PageRequest pageRequest = makePageRequest(from, size, Sort.by("id").ascending());
+            return itemSearch.search(text, pageRequest).stream().map(ItemMapper::toItemDto).collect(toList());
+        });
+    }
+
+    @Override
+    public List<String> suggest(String prefix, Integer size) {
+        if (prefix == null || prefix.isBlank()) return Collections.emptyList();
+        if (size != null && size <= 0)
+            throw new IncorrectParameterException("size <= 0");
+        int limit = size == null ? ItemSuggestions.MAX_SUGGESTIONS : Math.min(size, ItemSuggestions.MAX_SUGGESTIONS);
+        return itemSuggestions.suggest(prefix, limit);
     }
 
     @Override
@@ -166,6 +248,7 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(user);
         comment.setCreated(LocalDateTime.now());
         Comment save = commentStorage.save(comment);
+        itemStorage.incrementCommentsCount(itemId);
         return CommentMapper.toCommentDto(save);
     }
 
@@ -193,13 +276,36 @@ public class ItemServiceImpl implements ItemService {
                 .collect(toList());
     }
 
-    private ItemAllDto getItemAllFieldsDto(List<Comment> comments,
-                                           Map<Long, List<BookingAllDto>> bookings,
-                                           Item item) {
-            return ItemMapper.toItemAllFieldsDto(item,
-                    getLastItem(bookings.get(item.getId())),
-                    getNextItem(bookings.get(item.getId())),
-                    comments.stream().map(CommentMapper::toCommentDto).collect(toList()));
+    private CommentPageDto getCommentPage(Long itemId, Cursor cursor, int size) {
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+        List<Comment> comments = cursor == null
+                ? commentStorage.findByItem_IdOrderByCreatedDescIdDesc(itemId, pageRequest)
+                : commentStorage.findPageAfter(itemId, cursor.getTime(), cursor.getId(), pageRequest);
+        return toCommentPage(comments, size);
+    }
+
+    /**
+     * Groups comments, already ordered newest first and limited per item by the query, by item id in one pass.
+     */
+    private LongObjectMap<List<Comment>> groupByItem(List<Comment> comments, int items) {
+        LongObjectMap<List<Comment>> byItem = new LongObjectMap<>(items);
+        for (Comment comment : comments)
+            byItem.computeIfAbsent(comment.getItem().getId(), id -> new ArrayList<>()).add(comment);
+        return byItem;
+    }
+
+    private CommentPageDto toCommentPage(List<Comment> comments, int size) {
+        if (comments == null) comments = Collections.emptyList();
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            Comment last = comments.get(size - 1);
+            nextCursor = new Cursor(last.getCreated(), last.getId()).encode();
+        }
+        return CommentPageDto.builder()
+                .comments(comments.stream().map(CommentMapper::toCommentDto).collect(toList()))
+                .nextCursor(nextCursor)
+                .build();
     }
 
     private void valid(ItemDto itemDto) {
@@ -213,20 +319,4 @@ public class ItemServiceImpl implements ItemService {
             throw new IncorrectParameterException("Некорректно заданы поля в запросе");
         }
     }
-
-    private BookingAllDto getNextItem(List<BookingAllDto> bookings) {
-        return bookings != null
-                ? bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()) && !Objects.equals(booking.getStatus().toString(), "REJECTED"))
-                .min(Comparator.comparing(BookingAllDto::getEnd)).orElse(null)
-                : null;
-    }
-
-    private BookingAllDto getLastItem(List<BookingAllDto> bookings) {
-        return bookings != null
-                ? bookings.stream()
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()))
-                .max(Comparator.comparing(BookingAllDto::getEnd)).orElse(null)
-                : null;
-    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.outbox.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+public class OutboxMapper {
+    public static ObjectNode toMessage(OutboxEvent event, ObjectMapper objectMapper) {
+        ObjectNode message = objectMapper.createObjectNode();
+        message.put("id", event.getId());
+        message.put("type", event.getType());
+        message.put("aggregateId", event.getAggregateId());
+        message.put("created", event.getCreated().toString());
+        try {
+            message.set("payload", objectMapper.readTree(event.getPayload()));
+        } catch (JsonProcessingException e) {
+            message.put("payload", event.getPayload());
+        }
+        return message;
+    }
+}
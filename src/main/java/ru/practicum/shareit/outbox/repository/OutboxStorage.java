@@ -0,0 +1,11 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxStorage extends JpaRepository<OutboxEvent, Long>, OutboxStorageCustom {
+    List<OutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.outbox.repository;
+
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxStorageCustom {
+    void append(List<OutboxEvent> events);
+}
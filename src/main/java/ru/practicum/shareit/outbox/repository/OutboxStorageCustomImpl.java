@@ -0,0 +1,30 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserts outbox rows with one JDBC batch on the connection of the current transaction.
+ */
+public class OutboxStorageCustomImpl implements OutboxStorageCustom {
+    private static final String INSERT = "insert into outbox (event_type, aggregate_id, payload, created) " +
+            "values (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void append(List<OutboxEvent> events) {
+        if (events.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.getType());
+            statement.setLong(2, event.getAggregateId());
+            statement.setString(3, event.getPayload());
+            statement.setTimestamp(4, Timestamp.valueOf(event.getCreated()));
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.outbox.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Drains the outbox in id order and hands every batch to all enabled sinks.
+ * A batch is deleted only after every sink accepted it, so delivery is at-least-once.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxService outboxService;
+    private final List<OutboxSink> sinks;
+    private final int batchSize;
+
+    public OutboxRelay(OutboxService outboxService,
+                       List<OutboxSink> sinks,
+                       @Value("${shareit.outbox.batch-size:100}") int batchSize) {
+        this.outboxService = outboxService;
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.flush-interval:1000}")
+    public int relay() {
+        int total = 0;
+        List<OutboxEvent> events;
+        do {
+            events = outboxService.poll(batchSize);
+            if (events.isEmpty()) break;
+            try {
+                for (OutboxSink sink : sinks)
+                    sink.send(events);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось отправить события outbox, повтор при следующем запуске: {}", e.getMessage());
+                break;
+            }
+            outboxService.acknowledge(events.stream().map(OutboxEvent::getId).collect(toList()));
+            total += events.size();
+        } while (events.size() == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxStorage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class OutboxService {
+    private final OutboxStorage outboxStorage;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxStorage outboxStorage, ObjectMapper objectMapper) {
+        this.outboxStorage = outboxStorage;
+        this.objectMapper = objectMapper;
+    }
+
+    public OutboxEvent event(String type, Long aggregateId, Object payload) {
+        try {
+            return OutboxEvent.builder()
+                    .type(type)
+                    .aggregateId(aggregateId)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .created(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + type, e);
+        }
+    }
+
+    @Transactional
+    public void append(String type, Long aggregateId, Object payload) {
+        outboxStorage.append(List.of(event(type, aggregateId, payload)));
+    }
+
+    @Transactional
+    public void appendAll(List<OutboxEvent> events) {
+        outboxStorage.append(events);
+    }
+
+    public List<OutboxEvent> poll(int limit) {
+        return outboxStorage.findAllByOrderByIdAsc(PageRequest.of(0, limit));
+    }
+
+    @Transactional
+    public void acknowledge(List<Long> ids) {
+        outboxStorage.deleteAllByIdInBatch(ids);
+    }
+}
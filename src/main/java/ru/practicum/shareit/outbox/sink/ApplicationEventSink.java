@@ -0,0 +1,26 @@
+package ru.practicum.shareit.outbox.sink;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Republishes outbox rows as Spring application events for in-process listeners.
+ */
+@Component
+@ConditionalOnProperty(value = "shareit.outbox.sinks.events.enabled", havingValue = "true", matchIfMissing = true)
+public class ApplicationEventSink implements OutboxSink {
+    private final ApplicationEventPublisher publisher;
+
+    public ApplicationEventSink(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void send(List<OutboxEvent> events) {
+        events.forEach(publisher::publishEvent);
+    }
+}
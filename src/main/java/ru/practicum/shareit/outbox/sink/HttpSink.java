@@ -0,0 +1,49 @@
+package ru.practicum.shareit.outbox.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.outbox.mapper.OutboxMapper;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.Duration;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Posts every batch as a JSON array to the configured endpoint; any non-2xx answer fails the batch.
+ * The relay shares the scheduler thread with the booking sweeper, so both timeouts are always set.
+ */
+@Component
+@ConditionalOnProperty("shareit.outbox.sinks.http.url")
+public class HttpSink implements OutboxSink {
+    private final String url;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    public HttpSink(@Value("${shareit.outbox.sinks.http.url}") String url,
+                    RestTemplateBuilder restTemplateBuilder,
+                    ObjectMapper objectMapper,
+                    @Value("${shareit.outbox.sinks.http.connect-timeout:2s}") Duration connectTimeout,
+                    @Value("${shareit.outbox.sinks.http.read-timeout:5s}") Duration readTimeout) {
+        this.url = url;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void send(List<OutboxEvent> events) {
+        List<ObjectNode> messages = events.stream()
+                .map(event -> OutboxMapper.toMessage(event, objectMapper))
+                .collect(toList());
+        restTemplate.postForEntity(url, messages, Void.class);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.outbox.sink;
+
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxSink {
+    void send(List<OutboxEvent> events);
+}
@@ -14,8 +14,15 @@ import javax.persistence.*;
 @NoArgsConstructor
 @Builder
 public class User {
+    /**
+     * Ids are handed out in blocks of this size, by Hibernate and by {@link ru.practicum.shareit.user.repository.UserIdAllocator}
+     * alike; it must match the increment of users_seq.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private String name;
     private String email;
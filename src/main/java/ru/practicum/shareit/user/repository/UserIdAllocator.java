@@ -0,0 +1,78 @@
+package ru.practicum.shareit.user.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.PostgresSequenceMaxValueIncrementer;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+import static ru.practicum.shareit.user.model.User.ID_ALLOCATION_SIZE;
+
+/**
+ * Hands out user ids for JDBC inserts. Every call to users_seq reserves {@link ru.practicum.shareit.user.model.User#ID_ALLOCATION_SIZE}
+ * ids starting at the returned value, the same pooled-lo scheme Hibernate uses for the entity,
+ * so a bulk load touches the sequence once per block instead of once per row.
+ * <p>
+ * users.id used to be an identity column, so a database created before users_seq holds ids the sequence
+ * knows nothing about. At startup the sequence is moved past the largest existing id; it never moves back.
+ */
+@Slf4j
+@Component
+public class UserIdAllocator {
+    static final String SEQUENCE = "users_seq";
+
+    private final DataFieldMaxValueIncrementer incrementer;
+    private long next;
+    private long limit;
+
+    @Autowired
+    public UserIdAllocator(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, isPostgres(jdbcTemplate.getDataSource()));
+    }
+
+    UserIdAllocator(JdbcTemplate jdbcTemplate, boolean postgres) {
+        DataSource dataSource = jdbcTemplate.getDataSource();
+        this.incrementer = postgres
+                ? new PostgresSequenceMaxValueIncrementer(dataSource, SEQUENCE)
+                : new H2SequenceMaxValueIncrementer(dataSource, SEQUENCE);
+        moveSequencePastExistingIds(jdbcTemplate, postgres);
+    }
+
+    public synchronized long next() {
+        if (next == limit) {
+            next = incrementer.nextLongValue();
+            limit = next + ID_ALLOCATION_SIZE;
+        }
+        return next++;
+    }
+
+    private void moveSequencePastExistingIds(JdbcTemplate jdbcTemplate, boolean postgres) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+        if (maxId == null) return;
+        // the drawn block is above every block handed out so far, so ids at or past it can only be old identity ids
+        long drawn = incrementer.nextLongValue();
+        if (maxId < drawn) return;
+        if (postgres)
+            jdbcTemplate.queryForObject("select setval('" + SEQUENCE + "', ?, false)", Long.class, maxId + 1);
+        else
+            jdbcTemplate.execute("alter sequence " + SEQUENCE + " restart with " + (maxId + 1));
+        log.info("Последовательность {} перенесена на {}", SEQUENCE, maxId + 1);
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Не удалось определить тип базы данных: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,8 +1,18 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
-public interface UserStorage extends JpaRepository<User, Long> {
+
+public interface UserStorage extends JpaRepository<User, Long>, UserStorageCustom {
+    @Query("select user.email from User user where user.email in ?1")
+    Set<String> findEmailsIn(Collection<String> emails);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+public interface UserStorageCustom {
+    void forEachOrderedById(Consumer<User> action);
+
+    @Transactional(readOnly = true)
+    void forEachId(LongConsumer action);
+
+    @Transactional
+    void insertAll(List<User> users);
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+/**
+ * Walks all users, or just their ids, through a forward-only cursor fetched {@link #FETCH_SIZE} rows at a time.
+ * The persistence context is cleared after every fetch, so memory does not grow with the table.
+ * Must be called inside a transaction: PostgreSQL only honours the fetch size with autocommit off.
+ * Bulk inserts bypass Hibernate and go out as a single JDBC batch; ids must already be taken from {@link UserIdAllocator}.
+ */
+public class UserStorageCustomImpl implements UserStorageCustom {
+    static final int FETCH_SIZE = 500;
+    private static final String INSERT = "insert into users (id, name, email) values (?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachOrderedById(Consumer<User> action) {
+        try (Stream<User> users = entityManager.createQuery("select user from User user order by user.id", User.class)
+                .setHint(HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HINT_READONLY, true)
+                .getResultStream()) {
+            Iterator<User> iterator = users.iterator();
+            for (int read = 1; iterator.hasNext(); read++) {
+                action.accept(iterator.next());
+                if (read % FETCH_SIZE == 0) entityManager.clear();
+            }
+        }
+    }
+
+    @Override
+    public void forEachId(LongConsumer action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("select id from users");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) row -> action.accept(row.getLong(1)));
+    }
+
+    @Override
+    public void insertAll(List<User> users) {
+        jdbcTemplate.batchUpdate(INSERT, users, users.size(), (statement, user) -> {
+            statement.setLong(1, user.getId());
+            statement.setString(2, user.getName());
+            statement.setString(3, user.getEmail());
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-pass, allocation-free check of the addr-spec subset of RFC 5322 that mail providers hand out:
+ * a dot-atom local part of at most 64 characters, '@', and a host name of at least two dot-separated labels
+ * of letters, digits and inner hyphens, at most 63 characters each, 254 characters overall.
+ * Quoted local parts, comments and address literals are rejected. Runs in time linear in the input.
+ */
+@Component
+public class EmailValidator {
+    static final int MAX_LENGTH = 254;
+    static final int MAX_LOCAL_LENGTH = 64;
+    static final int MAX_LABEL_LENGTH = 63;
+
+    private static final boolean[] ATEXT = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) ATEXT[c] = true;
+        for (char c = 'A'; c <= 'Z'; c++) ATEXT[c] = true;
+        for (char c = '0'; c <= '9'; c++) ATEXT[c] = true;
+        for (char c : "!#$%&'*+-/=?^_`{|}~".toCharArray()) ATEXT[c] = true;
+    }
+
+    public boolean isValid(CharSequence email) {
+        if (email == null) return false;
+        int length = email.length();
+        if (length > MAX_LENGTH) return false;
+        int i = 0;
+        int atom = 0;
+        for (; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '@') break;
+            if (c == '.') {
+                if (atom == 0) return false;
+                atom = 0;
+            } else if (c < ATEXT.length && ATEXT[c]) {
+                atom++;
+            } else {
+                return false;
+            }
+        }
+        if (atom == 0 || i == length || i > MAX_LOCAL_LENGTH) return false;
+        int labels = 0;
+        int label = 0;
+        char previous = '@';
+        for (i++; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                if (label == 0 || previous == '-') return false;
+                labels++;
+                label = 0;
+            } else if (isLetterOrDigit(c) || c == '-' && label > 0) {
+                if (++label > MAX_LABEL_LENGTH) return false;
+            } else {
+                return false;
+            }
+            previous = c;
+        }
+        return labels > 0 && label > 0 && previous != '-';
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9';
+    }
+}
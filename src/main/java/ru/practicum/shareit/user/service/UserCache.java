@@ -0,0 +1,154 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.FrequencySketch;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded near-cache of users by id that never locks: entries live in a ConcurrentHashMap and expire after a TTL.
+ * Once the cache is full, a user is admitted only if a frequency sketch has seen it more often than the oldest
+ * cached user (TinyLFU), so a scan over one-off ids cannot flush the users that every request touches.
+ * The bound is approximate under concurrent admissions.
+ */
+@Component
+public class UserCache {
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong generation = new AtomicLong();
+    private final FrequencySketch sketch;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserCache(MeterRegistry meterRegistry,
+                     @Value("${shareit.users.cache.max-size:10000}") int maxSize,
+                     @Value("${shareit.users.cache.ttl:5m}") Duration ttl) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize <= 0");
+        this.sketch = new FrequencySketch(maxSize);
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = meterRegistry.counter("shareit.users.cache.hits");
+        this.misses = meterRegistry.counter("shareit.users.cache.misses");
+        meterRegistry.gauge("shareit.users.cache.size", entries, ConcurrentHashMap::size);
+    }
+
+    /**
+     * Returns the user with the given id, or {@code null} if the loader does not find one.
+     */
+    public UserDto get(long id, LongFunction<Optional<User>> loader) {
+        Entry entry = find(id, loader);
+        return entry == null ? null : entry.toUserDto();
+    }
+
+    public boolean exists(long id, LongFunction<Optional<User>> loader) {
+        return find(id, loader) != null;
+    }
+
+    /**
+     * Drops the user now and again when the current transaction completes,
+     * so that a read which raced with the change cannot keep the old row.
+     */
+    public void evict(long id) {
+        invalidate(id);
+        TransactionHooks.afterCompletion(() -> invalidate(id));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private Entry find(long id, LongFunction<Optional<User>> loader) {
+        sketch.increment(id);
+        Entry cached = entries.get(id);
+        if (cached != null && System.nanoTime() - cached.expiresAt < 0) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long loadedAt = generation.get();
+        Optional<User> user = loader.apply(id);
+        if (user.isEmpty()) {
+            if (cached != null) entries.remove(id, cached);
+            return null;
+        }
+        Entry loaded = new Entry(user.get(), System.nanoTime() + ttlNanos);
+        boolean stored = cached != null ? entries.replace(id, cached, loaded) : admit(id, loaded);
+        if (stored && generation.get() != loadedAt) entries.remove(id, loaded);
+        return loaded;
+    }
+
+    private boolean admit(long id, Entry entry) {
+        if (entries.size() >= maxSize && !evictFor(id)) return false;
+        if (entries.putIfAbsent(id, entry) != null) return false;
+        order.add(id);
+        if (queued.incrementAndGet() > 2 * maxSize) compact();
+        return true;
+    }
+
+    private boolean evictFor(long candidate) {
+        int frequency = sketch.frequency(candidate);
+        Long victim;
+        while ((victim = order.poll()) != null) {
+            queued.decrementAndGet();
+            if (!entries.containsKey(victim)) continue;
+            if (frequency > sketch.frequency(victim)) {
+                entries.remove(victim);
+                return true;
+            }
+            order.add(victim);
+            queued.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void compact() {
+        Set<Long> seen = new HashSet<>();
+        order.removeIf(id -> !entries.containsKey(id) || !seen.add(id));
+        queued.set(seen.size());
+    }
+
+    private void invalidate(long id) {
+        generation.incrementAndGet();
+        entries.remove(id);
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String name;
+        private final String email;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.id = user.getId();
+            this.name = user.getName();
+            this.email = user.getEmail();
+            this.expiresAt = expiresAt;
+        }
+
+        private UserDto toUserDto() {
+            return UserDto.builder()
+                    .id(id)
+                    .name(name)
+                    .email(email)
+                    .build();
+        }
+    }
+}
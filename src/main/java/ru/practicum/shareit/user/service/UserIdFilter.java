@@ -0,0 +1,75 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.repository.UserStorage;
+import ru.practicum.shareit.util.BloomFilter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of every user id saved through this application, loaded from the database at startup.
+ * It lets an unknown id be rejected without a query. Deleted ids stay in the filter and are still looked up.
+ * Until the startup load completes every id is treated as possibly known.
+ * <p>
+ * The filter lives in one JVM and assumes a single application instance writes the users table.
+ * Users inserted by another instance or outside the application are only picked up by the periodic
+ * {@link #refresh()}, so until then they get a 404. Running several instances requires the refresh
+ * interval to be short enough for that delay, or the filter to be disabled.
+ */
+@Slf4j
+@Component
+public class UserIdFilter {
+    private final BloomFilter filter;
+    private final UserStorage userStorage;
+    private final Counter rejections;
+    private volatile boolean loaded;
+
+    public UserIdFilter(UserStorage userStorage,
+                        MeterRegistry meterRegistry,
+                        @Value("${shareit.users.filter.expected-size:1000000}") long expectedSize,
+                        @Value("${shareit.users.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userStorage = userStorage;
+        this.filter = new BloomFilter(expectedSize, falsePositiveRate);
+        this.rejections = meterRegistry.counter("shareit.users.filter.rejections");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long count = load();
+        loaded = true;
+        log.info("Фильтр id пользователей загружен: {} пользователей", count);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.users.filter.refresh-interval:600000}",
+            initialDelayString = "${shareit.users.filter.refresh-interval:600000}")
+    public void refresh() {
+        long count = load();
+        log.debug("Фильтр id пользователей обновлён: {} пользователей", count);
+    }
+
+    private long load() {
+        LongAdder count = new LongAdder();
+        userStorage.forEachId(id -> {
+            filter.add(id);
+            count.increment();
+        });
+        return count.sum();
+    }
+
+    public void add(long id) {
+        filter.add(id);
+    }
+
+    public boolean mightExist(long id) {
+        if (!loaded || filter.mightContain(id)) return true;
+        rejections.increment();
+        return false;
+    }
+}
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto save(UserDto user);
@@ -11,7 +16,15 @@ public interface UserService {
 
     UserDto get(Long id);
 
+    boolean exists(Long id);
+
     void delete(Long id);
 
     List<UserDto> getAll();
+
+    UserPageDto getAllAfter(String cursor, Integer size);
+
+    void forEach(Consumer<UserDto> action);
+
+    UserImportResultDto importUsers(BufferedReader reader) throws IOException;
 }
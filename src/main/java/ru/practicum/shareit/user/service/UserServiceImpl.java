@@ -1,30 +1,68 @@
 package ru.practicum.shareit.user.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.errors.exception.IncorrectParameterException;
 import ru.practicum.shareit.errors.exception.ObjectNotFoundException;
 import ru.practicum.shareit.errors.exception.ParameterException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportErrorDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserIdAllocator;
 import ru.practicum.shareit.user.repository.UserStorage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import static java.util.stream.Collectors.toList;
 
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    static final int MAX_IMPORT_ERRORS = 1000;
+
     private final UserStorage userStorage;
+    private final UserCache userCache;
+    private final UserIdFilter userIdFilter;
+    private final EmailValidator emailValidator;
+    private final UserIdAllocator userIdAllocator;
+    private final ObjectMapper objectMapper;
+    private final int importBatchSize;
 
     @Autowired
-    public UserServiceImpl(UserStorage userStorage) {
+    public UserServiceImpl(UserStorage userStorage,
+                           UserCache userCache,
+                           UserIdFilter userIdFilter,
+                           EmailValidator emailValidator,
+                           UserIdAllocator userIdAllocator,
+                           ObjectMapper objectMapper,
+                           @Value("${shareit.users.bulk.batch-size:500}") int importBatchSize) {
         this.userStorage = userStorage;
+        this.userCache = userCache;
+        this.userIdFilter = userIdFilter;
+        this.emailValidator = emailValidator;
+        this.userIdAllocator = userIdAllocator;
+        this.objectMapper = objectMapper;
+        this.importBatchSize = importBatchSize;
     }
 
 
@@ -32,7 +70,11 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto save(UserDto userDto) {
         valid(userDto);
-        return UserMapper.toUserDto(userStorage.save(UserMapper.toUser(userDto)));
+        User user = userStorage.save(UserMapper.toUser(userDto));
+        userStorage.flush();
+        userIdFilter.add(user.getId());
+        userCache.evict(user.getId());
+        return UserMapper.toUserDto(user);
     }
 
     @Override
@@ -49,6 +91,7 @@ public class UserServiceImpl implements UserService {
            user.setEmail(userDto.getEmail());
        }
 
+       userCache.evict(id);
        try {
            return UserMapper.toUserDto(userStorage.save(user));
        } catch (DataIntegrityViolationException ex) {
@@ -64,11 +107,19 @@ public class UserServiceImpl implements UserService {
         if (id == null) {
             throw new IncorrectParameterException("Id пользователя не может быть null");
         }
-        User user = userStorage.findById(id).orElseThrow(() -> {
-            throw new ObjectNotFoundException("Пользователь с id = " + id + " не найден");
-        });
+        UserDto user = userIdFilter.mightExist(id) ? userCache.get(id, userStorage::findById) : null;
+        if (user == null) {
+            throw ObjectNotFoundException.stackless("Пользователь с id = " + id + " не найден");
+        }
+        return user;
+    }
 
-        return UserMapper.toUserDto(user);
+    @Override
+    public boolean exists(Long id) {
+        if (id == null) {
+            throw new IncorrectParameterException("Id пользователя не может быть null");
+        }
+        return userIdFilter.mightExist(id) && userCache.exists(id, userStorage::findById);
     }
 
     @Override
@@ -78,6 +129,7 @@ public class UserServiceImpl implements UserService {
             throw new IncorrectParameterException("Id не может быть пустым!");
         }
         userStorage.deleteById(id);
+        userCache.evict(id);
     }
 
     @Override
@@ -88,29 +140,142 @@ public class UserServiceImpl implements UserService {
                 .collect(toList());
     }
 
+    @Override
+    public UserPageDto getAllAfter(String cursor, Integer size) {
+        int limit = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (limit <= 0) throw new IncorrectParameterException("size <= 0");
+        List<User> users = userStorage.findByIdGreaterThanOrderByIdAsc(decodeCursor(cursor), PageRequest.of(0, limit + 1));
+        String nextCursor = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            nextCursor = users.get(limit - 1).getId().toString();
+        }
+        return UserPageDto.builder()
+                .users(users.stream().map(UserMapper::toUserDto).collect(toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public void forEach(Consumer<UserDto> action) {
+        userStorage.forEachOrderedById(user -> action.accept(UserMapper.toUserDto(user)));
+    }
+
+    /**
+     * Reads one JSON user per line and inserts the valid ones in batches of {@code shareit.users.bulk.batch-size},
+     * each batch in its own transaction. Rows with a bad name or email, an email repeated in the load
+     * or already taken are reported and skipped; the rest of the load goes on.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserImportResultDto importUsers(BufferedReader reader) throws IOException {
+        UserImportResultDto result = new UserImportResultDto(0, 0, new ArrayList<>());
+        Set<String> emails = new HashSet<>();
+        List<ImportRow> batch = new ArrayList<>(importBatchSize);
+        String line;
+        for (long number = 1; (line = reader.readLine()) != null; number++) {
+            if (line.isBlank()) continue;
+            String name = null;
+            String email = null;
+            String error;
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                name = node.path("name").textValue();
+                email = node.path("email").textValue();
+                error = validImported(name, email);
+            } catch (JsonProcessingException e) {
+                error = "Некорректный JSON";
+            }
+            if (error == null && !emails.add(email)) error = "Email повторяется в загрузке";
+            if (error != null) {
+                reject(result, number, email, error);
+                continue;
+            }
+            batch.add(new ImportRow(number, User.builder().name(name).email(email).build()));
+            if (batch.size() == importBatchSize) {
+                insertBatch(batch, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) insertBatch(batch, result);
+        log.info("Загружено пользователей: {}, отклонено: {}", result.getAccepted(), result.getRejected());
+        return result;
+    }
+
+    private void insertBatch(List<ImportRow> batch, UserImportResultDto result) {
+        Set<String> taken = userStorage.findEmailsIn(batch.stream().map(row -> row.user.getEmail()).collect(toList()));
+        List<ImportRow> rows = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            if (taken.contains(row.user.getEmail()))
+                reject(result, row.line, row.user.getEmail(), "Email уже занят");
+            else
+                rows.add(row);
+        }
+        if (rows.isEmpty()) return;
+        for (ImportRow row : rows)
+            row.user.setId(userIdAllocator.next());
+        try {
+            userStorage.insertAll(rows.stream().map(row -> row.user).collect(toList()));
+            rows.forEach(row -> accept(result, row.user));
+        } catch (DataIntegrityViolationException e) {
+            // an email was taken after the check above, find out which row by inserting them one at a time
+            for (ImportRow row : rows) {
+                try {
+                    userStorage.insertAll(List.of(row.user));
+                    accept(result, row.user);
+                } catch (DataIntegrityViolationException ex) {
+                    reject(result, row.line, row.user.getEmail(), "Email уже занят");
+                }
+            }
+        }
+    }
+
+    private String validImported(String name, String email) {
+        if (name == null || name.isBlank()) return "Имя не может быть пустым";
+        if (email == null) return "Email не может быть пустым";
+        if (!emailValidator.isValid(email)) return "Неверно задан email";
+        return null;
+    }
+
+    private void accept(UserImportResultDto result, User user) {
+        userIdFilter.add(user.getId());
+        result.setAccepted(result.getAccepted() + 1);
+    }
+
+    private static void reject(UserImportResultDto result, long line, String email, String error) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_IMPORT_ERRORS)
+            result.getErrors().add(new UserImportErrorDto(line, email, error));
+    }
+
+    private static class ImportRow {
+        private final long line;
+        private final User user;
+
+        private ImportRow(long line, User user) {
+            this.line = line;
+            this.user = user;
+        }
+    }
+
+    private long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0;
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IncorrectParameterException("Некорректный курсор: " + cursor);
+        }
+    }
+
 
     public void valid(UserDto user) {
         if (user == null) {
             throw new IncorrectParameterException("При создании пользователя передан некорреткный параметр");
         }  else if (user.getEmail() == null) {
             throw new IncorrectParameterException("Email не может быть пустым");
-        } else if (!isValidEmailAddress(user.getEmail())) {
+        } else if (!emailValidator.isValid(user.getEmail())) {
             throw new IncorrectParameterException("Неверно задан email");
         }
     }
 
-    public boolean isValidEmailAddress(String email) {
-        String ePattern = "(?:[A-Za-z0-9!#$%&'*+/=?.^_`{|}~]" +
-                "+(?:.[a-z0-9!#$%&'*+/=?^_`{|}~]+)*|" +
-                "\\\"(?:[x01-x08x0bx0cx0e-x1fx21x23-x5bx5d-x7f]|[x01-x09x0bx0cx0e-x7f])*\\\")" +
-                "@(?:(?:[a-z0-9](?:[a-z0-9-]*[a-z0-9])?.)" +
-                "+[a-z0-9](?:[a-z0-9-]*[a-z0-9])?|" +
-                "[(?:(?:(2(5[0-5]|[0-4][0-9])|1[0-9][0-9]|[1-9]?[0-9])).){3}(?:(2(5[0-5]|" +
-                "[0-4][0-9])|1[0-9][0-9]|[1-9]?[0-9])|[a-z0-9-]*[a-z0-9]:(?:[x01-x08x0bx0cx0e-x1fx21-x5ax53-x7f]" +
-                "|[x01-x09x0bx0cx0e-x7f])+)])";
-        java.util.regex.Pattern p = java.util.regex.Pattern.compile(ePattern);
-        java.util.regex.Matcher m = p.matcher(email);
-        return m.matches();
-    }
-
 }
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter of {@code long} keys. {@link #mightContain} never answers {@code false} for an added key;
+ * it answers {@code true} for a key that was never added with roughly the configured probability,
+ * as long as no more than the expected number of keys were added. Keys cannot be removed.
+ */
+public class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) throw new IllegalArgumentException("expectedInsertions <= 0");
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1)
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int length = (int) Math.min(Integer.MAX_VALUE, (Math.max(64, optimalBits) + 63) >>> 6);
+        this.words = new AtomicLongArray(length);
+        this.bits = (long) length << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+    }
+
+    public void add(long key) {
+        long hash = mix(key);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashes; i++, hash += step) {
+            long bit = Math.floorMod(hash, bits);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask))
+                word = words.get(index);
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashes; i++, hash += step) {
+            long bit = Math.floorMod(hash, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    long bitSize() {
+        return bits;
+    }
+
+    int hashCount() {
+        return hashes;
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+}
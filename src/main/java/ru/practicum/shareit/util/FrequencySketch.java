@@ -0,0 +1,84 @@
+package ru.practicum.shareit.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch of 4-bit counters estimating how often a {@code long} key was seen recently.
+ * Every counter is halved after {@code 10 * capacity} increments, so old popularity fades out.
+ * Updates are lock-free; concurrent increments may occasionally be lost, which only makes an estimate lower.
+ */
+public class FrequencySketch {
+    private static final long[] SEEDS = {
+            0x97cb3127L, 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final AtomicLongArray table;
+    private final AtomicInteger additions = new AtomicInteger();
+    private final int tableMask;
+    private final int sampleSize;
+
+    public FrequencySketch(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity <= 0");
+        int length = Integer.highestOneBit(Math.max(64, capacity) - 1) << 1;
+        this.table = new AtomicLongArray(length);
+        this.tableMask = length - 1;
+        this.sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+    }
+
+    public int frequency(long key) {
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long hash = hash(key, row);
+            frequency = Math.min(frequency, counter(table.get(index(hash)), offset(hash)));
+        }
+        return frequency;
+    }
+
+    public void increment(long key) {
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long hash = hash(key, row);
+            added |= increment(index(hash), offset(hash));
+        }
+        if (added && additions.incrementAndGet() == sampleSize) reset();
+    }
+
+    private boolean increment(int index, int offset) {
+        while (true) {
+            long word = table.get(index);
+            if (counter(word, offset) == MAX_COUNT) return false;
+            if (table.compareAndSet(index, word, word + (1L << offset))) return true;
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length(); i++)
+            while (true) {
+                long word = table.get(i);
+                if (table.compareAndSet(i, word, (word >>> 1) & RESET_MASK)) break;
+            }
+        additions.addAndGet(-sampleSize / 2);
+    }
+
+    private int index(long hash) {
+        return (int) (hash >>> 32) & tableMask;
+    }
+
+    private static int offset(long hash) {
+        return ((int) hash & 15) << 2;
+    }
+
+    private static int counter(long word, int offset) {
+        return (int) (word >>> offset) & MAX_COUNT;
+    }
+
+    private static long hash(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[row];
+        hash ^= hash >>> 29;
+        hash *= 0xbf58476d1ce4e5b9L;
+        return hash ^ (hash >>> 32);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * JVM-local locks keyed by entity id. A stripe only guards the short lookup of the per-key lock,
+ * so the critical sections of different keys never wait for each other even when they share a stripe.
+ */
+@Component
+public class StripedLocks {
+    private final Map<Long, KeyLock>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    public StripedLocks(@Value("${shareit.locks.stripes:64}") int stripes) {
+        if (stripes <= 0) throw new IllegalArgumentException("stripes <= 0");
+        this.stripes = new Map[stripes];
+        for (int i = 0; i < stripes; i++)
+            this.stripes[i] = new HashMap<>();
+    }
+
+    public <T> T withLock(Long key, Supplier<T> action) {
+        Map<Long, KeyLock> stripe = stripes[Math.floorMod(Long.hashCode(key), stripes.length)];
+        KeyLock keyLock;
+        synchronized (stripe) {
+            keyLock = stripe.computeIfAbsent(key, k -> new KeyLock());
+            keyLock.holders++;
+        }
+        keyLock.lock.lock();
+        try {
+            return action.get();
+        } finally {
+            keyLock.lock.unlock();
+            synchronized (stripe) {
+                if (--keyLock.holders == 0) stripe.remove(key);
+            }
+        }
+    }
+
+    int stripes() {
+        return stripes.length;
+    }
+
+    private static final class KeyLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int holders;
+    }
+}
@@ -1,6 +1,8 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id    BIGINT                                  NOT NULL,
     name  VARCHAR(255)                            NOT NULL,
     email VARCHAR(255)                            NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
@@ -24,6 +26,8 @@ CREATE TABLE IF NOT EXISTS items
     available   BOOLEAN                                 NOT NULL DEFAULT FALSE,
     owner_id    BIGINT REFERENCES users (id) ON DELETE CASCADE,
     request_id  BIGINT REFERENCES requests (id) ON DELETE CASCADE,
+    version     BIGINT                                  NOT NULL DEFAULT 0,
+    comments_count BIGINT                               NOT NULL DEFAULT 0,
     CONSTRAINT pk_item PRIMARY KEY (id)
 );
 
@@ -35,6 +39,7 @@ CREATE TABLE IF NOT EXISTS bookings
     item_id    BIGINT REFERENCES items (id) ON DELETE CASCADE,
     booker_id  BIGINT REFERENCES users (id) ON DELETE CASCADE,
     status     VARCHAR(30)                             NOT NULL,
+    version    BIGINT                                  NOT NULL DEFAULT 0,
     CONSTRAINT pk_booking PRIMARY KEY (id)
 );
 
@@ -46,4 +51,35 @@ CREATE TABLE IF NOT EXISTS comments
     author_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
     created   TIMESTAMP                               NOT NULL,
     CONSTRAINT pk_comment PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS outbox
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    event_type   VARCHAR(50)                             NOT NULL,
+    aggregate_id BIGINT                                  NOT NULL,
+    payload      VARCHAR(4000)                           NOT NULL,
+    created      TIMESTAMP                               NOT NULL,
+    CONSTRAINT pk_outbox PRIMARY KEY (id)
+);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comments_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE items
+SET comments_count = (SELECT count(*) FROM comments c WHERE c.item_id = items.id)
+WHERE comments_count = 0
+  AND EXISTS (SELECT 1 FROM comments c WHERE c.item_id = items.id);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_status_start ON bookings (status, start_date);
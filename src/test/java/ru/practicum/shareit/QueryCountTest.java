@@ -0,0 +1,121 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.Enums.Status.APPROVED;
+
+/**
+ * Caps the number of SQL statements per read endpoint, so a lazy association loaded row by row fails the build.
+ * The fixture has five items, five bookers and a booking and a comment per pair, any N+1 would exceed the caps.
+ */
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryCountTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int SIZE = 5;
+
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MockMvc mvc;
+    private final UserService userService;
+    private Statistics statistics;
+    private User owner;
+    private User requester;
+    private final List<User> bookers = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private Booking booking;
+
+    @BeforeEach
+    void initialize() {
+        owner = user("Owner", "owner@mail.com");
+        requester = user("Requester", "requester@mail.com");
+        ItemRequest request = persist(new ItemRequest(null, "Need tools", requester, now()));
+        for (int i = 0; i < SIZE; i++) {
+            bookers.add(user("Booker " + i, "booker" + i + "@mail.com"));
+            items.add(persist(new Item(null, "Tool " + i, "Useful tool " + i, true, owner, request, 0L, 0L)));
+        }
+        for (int i = 0; i < SIZE; i++)
+            for (int j = 0; j < SIZE; j++) {
+                booking = persist(new Booking(null, now().minusDays(2 + j), now().minusDays(1 + j),
+                        items.get(i), bookers.get(j), APPROVED, 0L));
+                persist(new Comment(null, "Nice " + i + j, items.get(i), bookers.get(j), now()));
+            }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    private User user(String name, String email) {
+        return entityManager.find(User.class, userService.save(new UserDto(null, name, email)).getId());
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private void assertStatements(int max, RequestBuilder request) throws Exception {
+        entityManager.clear();
+        statistics.clear();
+        mvc.perform(request).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo((long) max));
+    }
+
+    @Test
+    void getBookingsTest() throws Exception {
+        assertStatements(2, get("/bookings").header(USER_HEADER, bookers.get(0).getId()));
+        assertStatements(2, get("/bookings/owner").header(USER_HEADER, owner.getId()));
+        assertStatements(2, get("/bookings/{id}", booking.getId()).header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void getItemsTest() throws Exception {
+        assertStatements(4, get("/items").header(USER_HEADER, owner.getId()));
+        assertStatements(3, get("/items/{id}", items.get(0).getId()).header(USER_HEADER, owner.getId()));
+        assertStatements(3, get("/items")
+                .header(USER_HEADER, owner.getId())
+                .param("ids", items.stream().map(item -> item.getId().toString()).toArray(String[]::new)));
+    }
+
+    @Test
+    void getCommentsTest() throws Exception {
+        assertStatements(3, get("/items/{id}", items.get(0).getId()).header(USER_HEADER, bookers.get(0).getId()));
+        assertStatements(2, get("/items/{id}/comments", items.get(0).getId()).param("size", "2"));
+    }
+
+    @Test
+    void getRequestsTest() throws Exception {
+        assertStatements(3, get("/requests").header(USER_HEADER, requester.getId()));
+        assertStatements(3, get("/requests/all").header(USER_HEADER, owner.getId()));
+    }
+}
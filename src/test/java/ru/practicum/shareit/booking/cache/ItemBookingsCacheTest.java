@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemBookingsCacheTest {
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private final AtomicInteger loads = new AtomicInteger();
+    private ItemBookingsCache cache;
+    private ItemBookingsDto bookings;
+
+    @BeforeEach
+    void initialize() {
+        cache = new ItemBookingsCache(Duration.ofMinutes(5), 2);
+        bookings = new ItemBookingsDto(new BookingDto(1L, 2L), new BookingDto(3L, 2L), now.plusMinutes(1));
+    }
+
+    private ItemBookingsDto load(Long itemId) {
+        loads.incrementAndGet();
+        return bookings;
+    }
+
+    @Test
+    void hitTest() {
+        cache.get(1L, now, this::load);
+        assertEquals(bookings, cache.get(1L, now.plusSeconds(59), this::load));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void expiresAtNextStartTest() {
+        cache.get(1L, now, this::load);
+        cache.get(1L, now.plusMinutes(1), this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void expiresAfterMaxStalenessTest() {
+        bookings.setValidUntil(null);
+        cache.get(1L, now, this::load);
+        cache.get(1L, now.plusMinutes(4), this::load);
+        cache.get(1L, now.plusMinutes(5), this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictTest() {
+        cache.get(1L, now, this::load);
+        cache.evict(1L);
+        cache.get(1L, now, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void maxSizeTest() {
+        cache.get(1L, now, this::load);
+        cache.get(2L, now, this::load);
+        cache.get(3L, now, this::load);
+        cache.get(3L, now, this::load);
+        assertEquals(3, loads.get());
+        assertTrue(cache.size() <= 2);
+    }
+
+    @Test
+    void fullCacheAdmitsAfterExpiryTest() {
+        cache.get(1L, now, this::load);
+        cache.get(2L, now, this::load);
+        LocalDateTime later = now.plusMinutes(2);
+        bookings = new ItemBookingsDto(new BookingDto(1L, 2L), new BookingDto(3L, 2L), later.plusMinutes(1));
+        cache.get(3L, later, this::load);
+        cache.get(3L, later, this::load);
+        assertEquals(3, loads.get());
+        assertEquals(1, cache.size());
+    }
+}
@@ -9,6 +9,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.errors.exception.IncorrectParameterException;
 import ru.practicum.shareit.errors.exception.ObjectNotFoundException;
@@ -22,7 +25,9 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.Enums.Status.APPROVED;
 import static ru.practicum.shareit.Enums.Status.WAITING;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -31,6 +36,7 @@ import static org.springframework.http.MediaType.*;
 import static java.nio.charset.StandardCharsets.*;
 import static org.hamcrest.Matchers.*;
 import static java.util.List.*;
+import static ru.practicum.shareit.util.Cursor.NEXT_CURSOR_HEADER;
 
 @WebMvcTest(controllers = BookingController.class)
 class BookingControllerTest {
@@ -264,4 +270,58 @@ class BookingControllerTest {
                 )
                 .andExpect(status().is5xxServerError());
     }
+
+    @Test
+    void getAllBookingsByCursorTest() throws Exception {
+        when(bookingService.getAllAfter(1L, "ALL", "", 1))
+                .thenReturn(new BookingPageDto(List.of(bookingAllFieldsDto), "next"));
+        mvc.perform(get("/bookings")
+                        .header(headerSharerUserId, 1)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("cursor", "")
+                )
+                .andExpect(jsonPath("$[0].id", is(bookingAllFieldsDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(NEXT_CURSOR_HEADER, "next"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getBookingsByOwnerLastPageTest() throws Exception {
+        when(bookingService.getBookingsByOwnerAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new BookingPageDto(List.of(bookingAllFieldsDto), null));
+        mvc.perform(get("/bookings/owner")
+                        .header(headerSharerUserId, 1)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("cursor", "abc")
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void approveAllTest() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        when(bookingService.approveAll(decisions, 1L))
+                .thenReturn(List.of(
+                        new BookingDecisionResultDto(1L, APPROVED, null),
+                        new BookingDecisionResultDto(2L, WAITING, "Бронирование не может быть обновлено")));
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(decisions))
+                        .header(headerSharerUserId, 1)
+                        .contentType(APPLICATION_JSON)
+                        .accept(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                )
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(APPROVED.name())))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].error", is("Бронирование не может быть обновлено")))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingStorage;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.Enums.Status.WAITING;
+
+class BookingIntervalIndexTest {
+    private final BookingStorage bookingStorage = mock(BookingStorage.class);
+    private final BookingIntervalIndex index = new BookingIntervalIndex(bookingStorage);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void writePrunesEndedIntervalsTest() {
+        when(bookingStorage.findIntervals(any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 1L, now.minusHours(3), now.plusSeconds(1)}));
+        index.warmUp();
+        index.prune(1L, now.plusSeconds(1));
+        assertEquals(0, index.size(1L));
+        assertTrue(index.busyHours(1L, now.minusHours(4), now.plusHours(4)).isEmpty());
+        index.add(booking(2L, now.plusDays(1), now.plusDays(2)));
+        assertEquals(1, index.size(1L));
+        assertTrue(index.hasConflict(1L, now.plusDays(1), now.plusDays(1).plusHours(1)));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(Item.builder().id(1L).build());
+        booking.setStatus(WAITING);
+        return booking;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HourBitmapTest {
+    @Test
+    void hourOfTest() {
+        LocalDateTime time = LocalDateTime.of(2030, 1, 1, 10, 0);
+        assertEquals(HourBitmap.hourOf(time), HourBitmap.hourAfter(time));
+        assertEquals(HourBitmap.hourOf(time) + 1, HourBitmap.hourAfter(time.plusMinutes(1)));
+        assertEquals(HourBitmap.hourOf(time), HourBitmap.hourOf(time.plusMinutes(59)));
+    }
+
+    @Test
+    void setAcrossChunksTest() {
+        HourBitmap bitmap = new HourBitmap();
+        bitmap.set(4000, 4200);
+        BitSet busy = bitmap.get(3990, 4210);
+        assertEquals(2, bitmap.chunks());
+        assertEquals(10, busy.nextSetBit(0));
+        assertEquals(210, busy.nextClearBit(10));
+        bitmap.clear(0, 10_000);
+        assertEquals(0, bitmap.chunks());
+    }
+
+    @Test
+    void randomizedTest() {
+        Random random = new Random(7);
+        HourBitmap bitmap = new HourBitmap();
+        BitSet expected = new BitSet();
+        long base = 480_000;
+        for (int i = 0; i < 1000; i++) {
+            int from = random.nextInt(40_000);
+            int to = from + 1 + random.nextInt(random.nextBoolean() ? 100 : 9000);
+            if (random.nextInt(3) > 0) {
+                bitmap.set(base + from, base + to);
+                expected.set(from, to);
+            } else {
+                bitmap.clear(base + from, base + to);
+                expected.clear(from, to);
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(40_000);
+            int to = from + random.nextInt(10_000);
+            assertEquals(expected.get(from, to), bitmap.get(base + from, base + to));
+        }
+    }
+}
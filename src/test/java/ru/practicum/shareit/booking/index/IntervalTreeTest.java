@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTreeTest {
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private IntervalTree tree;
+
+    @BeforeEach
+    void initialize() {
+        tree = new IntervalTree();
+        tree.insert(1L, base, base.plusHours(2));
+        tree.insert(2L, base.plusHours(5), base.plusHours(6));
+    }
+
+    @Test
+    void overlapTest() {
+        assertTrue(tree.overlaps(base.plusHours(1), base.plusHours(3)));
+        assertTrue(tree.overlaps(base.minusHours(1), base.plusHours(10)));
+        assertTrue(tree.overlaps(base.plusMinutes(330), base.plusMinutes(340)));
+    }
+
+    @Test
+    void adjacentIntervalsTest() {
+        assertFalse(tree.overlaps(base.plusHours(2), base.plusHours(5)));
+        assertFalse(tree.overlaps(base.minusHours(1), base));
+        assertFalse(tree.overlaps(base.plusHours(6), base.plusHours(7)));
+    }
+
+    @Test
+    void removeEndedByTest() {
+        tree.insert(3L, base.plusHours(1), base.plusHours(8));
+        List<LocalDateTime[]> removed = tree.removeEndedBy(base.plusHours(6));
+        assertEquals(2, removed.size());
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(base, base.plusHours(1)));
+        assertTrue(tree.overlaps(base.plusHours(7), base.plusHours(9)));
+        assertTrue(tree.removeEndedBy(base.plusHours(6)).isEmpty());
+    }
+
+    @Test
+    void removeTest() {
+        assertTrue(tree.remove(1L));
+        assertFalse(tree.remove(1L));
+        assertFalse(tree.overlaps(base, base.plusHours(2)));
+        assertTrue(tree.overlaps(base, base.plusHours(6)));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    void overlappingTest() {
+        tree.insert(3L, base.plusHours(7), base.plusHours(8));
+        List<LocalDateTime[]> intervals = tree.overlapping(base.plusHours(1), base.plusMinutes(330));
+        assertEquals(2, intervals.size());
+        assertEquals(base, intervals.get(0)[0]);
+        assertEquals(base.plusHours(5), intervals.get(1)[0]);
+        assertTrue(tree.overlapping(base.plusHours(2), base.plusHours(5)).isEmpty());
+    }
+
+    @Test
+    void randomizedTest() {
+        Random random = new Random(42);
+        List<LocalDateTime[]> intervals = new ArrayList<>();
+        IntervalTree randomTree = new IntervalTree();
+        for (long id = 0; id < 2000; id++) {
+            LocalDateTime start = base.plusMinutes(random.nextInt(100_000));
+            LocalDateTime end = start.plusMinutes(1 + random.nextInt(300));
+            intervals.add(new LocalDateTime[]{start, end});
+            randomTree.insert(id, start, end);
+        }
+        for (int id = 0; id < 2000; id += 3) {
+            randomTree.remove(id);
+            intervals.set(id, null);
+        }
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime start = base.plusMinutes(random.nextInt(100_000));
+            LocalDateTime end = start.plusMinutes(1 + random.nextInt(300));
+            boolean expected = intervals.stream()
+                    .anyMatch(interval -> interval != null && interval[0].isBefore(end) && interval[1].isAfter(start));
+            assertEquals(expected, randomTree.overlaps(start, end));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.ExpiredBookingsDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpirySweeperTest {
+    @Mock
+    private BookingService bookingService;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingExpirySweeper sweeper;
+
+    @BeforeEach
+    void initialize() {
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new BookingExpirySweeper(bookingService, meterRegistry, 2);
+    }
+
+    @Test
+    void sweepInBatchesTest() {
+        when(bookingService.cancelExpired(any(), eq(2)))
+                .thenReturn(new ExpiredBookingsDto(2, 2), new ExpiredBookingsDto(2, 1), new ExpiredBookingsDto(1, 1));
+        assertEquals(4, sweeper.sweep());
+        verify(bookingService, times(3)).cancelExpired(any(), eq(2));
+        assertEquals(4.0, meterRegistry.counter("shareit.bookings.sweeper.canceled").count());
+        assertEquals(4.0, meterRegistry.get("shareit.bookings.sweeper.last.canceled").gauge().value());
+        assertEquals(1, meterRegistry.timer("shareit.bookings.sweeper.duration").count());
+    }
+
+    @Test
+    void sweepNothingTest() {
+        when(bookingService.cancelExpired(any(), eq(2)))
+                .thenReturn(new ExpiredBookingsDto(0, 0));
+        assertEquals(0, sweeper.sweep());
+        verify(bookingService, times(1)).cancelExpired(any(), eq(2));
+    }
+}
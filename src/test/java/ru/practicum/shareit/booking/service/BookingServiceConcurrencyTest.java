@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.cache.ItemBookingsCache;
+import ru.practicum.shareit.booking.dto.BookingControllerDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingStorage;
+import ru.practicum.shareit.errors.exception.IncorrectParameterException;
+import ru.practicum.shareit.item.dto.ItemAllDto;
+import ru.practicum.shareit.outbox.repository.OutboxStorage;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.StripedLocks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.groupingBy;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+class BookingServiceConcurrencyTest {
+    private static final int ITEMS = 4;
+    private static final int ATTEMPTS = 4_000;
+
+    @Test
+    void saveWithoutOverlapsTest() throws Exception {
+        for (int threads : new int[]{1, 8, 64}) {
+            Queue<Booking> saved = new ConcurrentLinkedQueue<>();
+            BookingService bookingService = bookingService(saved);
+            long elapsed = run(bookingService, threads);
+            assertFalse(saved.isEmpty());
+            assertNoOverlaps(saved);
+            log.info("Потоков: {}, сохранено: {}, попыток в секунду: {}",
+                    threads, saved.size(), Math.round(ATTEMPTS * 1e9 / elapsed));
+        }
+    }
+
+    private BookingService bookingService(Queue<Booking> saved) {
+        BookingStorage bookingStorage = mock(BookingStorage.class, withSettings().stubOnly());
+        UserService userService = mock(UserService.class, withSettings().stubOnly());
+        AtomicLong ids = new AtomicLong();
+        when(userService.get(any()))
+                .thenReturn(new UserDto(100L, "Mike", "mike@mail.com"));
+        when(bookingStorage.save(any()))
+                .thenAnswer(invocation -> {
+                    Booking booking = invocation.getArgument(0);
+                    booking.setId(ids.incrementAndGet());
+                    saved.add(booking);
+                    return booking;
+                });
+        return new BookingServiceImpl(
+                userService,
+                bookingStorage,
+                new BookingIntervalIndex(bookingStorage),
+                new ItemBookingsCache(Duration.ofMinutes(5), 1000),
+                new StripedLocks(16),
+                new OutboxService(mock(OutboxStorage.class, withSettings().stubOnly()), new ObjectMapper().findAndRegisterModules()));
+    }
+
+    private long run(BookingService bookingService, int threads) throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            Random random = new Random(thread);
+            int attempts = ATTEMPTS / threads;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attempts; i++) {
+                    long itemId = 1 + random.nextInt(ITEMS);
+                    LocalDateTime from = base.plusHours(random.nextInt(2_000));
+                    BookingControllerDto booking = BookingControllerDto.builder()
+                            .start(from)
+                            .end(from.plusHours(1 + random.nextInt(5)))
+                            .build();
+                    try {
+                        bookingService.save(booking, item(itemId), 100L);
+                    } catch (IncorrectParameterException ignored) {
+                    }
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        long elapsed = System.nanoTime() - started;
+        for (Future<?> worker : workers)
+            worker.get();
+        return elapsed;
+    }
+
+    private ItemAllDto item(long itemId) {
+        return new ItemAllDto(itemId, "pen", "blue pen", true, 1L, null, null, null, List.of(), 0L, null);
+    }
+
+    private void assertNoOverlaps(Queue<Booking> saved) {
+        Map<Long, List<Booking>> byItem = saved.stream()
+                .collect(groupingBy(booking -> booking.getItem().getId()));
+        for (List<Booking> bookings : byItem.values()) {
+            List<Booking> sorted = new ArrayList<>(bookings);
+            sorted.sort((first, second) -> first.getStart().compareTo(second.getStart()));
+            for (int i = 1; i < sorted.size(); i++)
+                assertFalse(sorted.get(i).getStart().isBefore(sorted.get(i - 1).getEnd()),
+                        "Пересечение бронирований " + sorted.get(i - 1).getId() + " и " + sorted.get(i).getId());
+        }
+    }
+}
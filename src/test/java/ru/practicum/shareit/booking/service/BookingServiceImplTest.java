@@ -4,8 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -18,11 +23,13 @@ import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 import static ru.practicum.shareit.Enums.Status.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
 
@@ -38,6 +45,8 @@ class BookingServiceImplTest {
     private final ItemService itemService;
     private ItemDto itemDto;
     private UserDto owner;
+    private UserDto booker;
+    private ItemAllDto itemAllFieldsDto;
 
     @BeforeEach
     void initialize() {
@@ -47,7 +56,7 @@ class BookingServiceImplTest {
                         "Lora",
                         "lora@mail.com")
         );
-        UserDto booker = userService.save(
+        booker = userService.save(
                 new UserDto(
                         null,
                         "Mike",
@@ -63,7 +72,7 @@ class BookingServiceImplTest {
                 null,
                 owner.getId()
         );
-        ItemAllDto itemAllFieldsDto = new ItemAllDto(
+        itemAllFieldsDto = new ItemAllDto(
                 itemDto.getId(),
                 itemDto.getName(),
                 itemDto.getDescription(),
@@ -72,7 +81,9 @@ class BookingServiceImplTest {
                 null,
                 null,
                 null,
-                of()
+                of(),
+                0L,
+                null
         );
 
         BookingControllerDto bookingSavingDto = BookingControllerDto.builder()
@@ -233,4 +244,99 @@ class BookingServiceImplTest {
         assertThat(approved.getId(),
                 equalTo(booking.getId()));
     }
+
+    @Test
+    void getBookingsByOwnerCurrentPageTest() {
+        List<BookingAllDto> current = bookingService.getBookingsByOwner(
+                owner.getId(),
+                "CURRENT",
+                0,
+                1);
+        List<BookingAllDto> future = bookingService.getBookingsByOwner(
+                owner.getId(),
+                "FUTURE",
+                0,
+                1);
+        assertThat(current.size(), equalTo(1));
+        assertThat(current.get(0).getId(), equalTo(bookingAllFieldsDto.getId()));
+        assertThat(future.size(), equalTo(0));
+    }
+
+    @Test
+    void getAllBookingsByCursorTest() {
+        BookingAllDto later = bookingService.save(
+                BookingControllerDto.builder()
+                        .start(now().plusDays(1))
+                        .end(now().plusDays(2))
+                        .build(),
+                itemAllFieldsDto,
+                booker.getId()
+        );
+        entityManager.flush();
+        entityManager.clear();
+        BookingPageDto first = bookingService.getAllAfter(booker.getId(), null, "", 1);
+        BookingPageDto second = bookingService.getAllAfter(booker.getId(), null, first.getNextCursor(), 1);
+        assertThat(first.getBookings().get(0).getId(), equalTo(later.getId()));
+        assertThat(second.getBookings().get(0).getId(), equalTo(bookingAllFieldsDto.getId()));
+        assertThat(second.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void getLastAndNextTest() {
+        BookingAllDto next = bookingService.save(
+                BookingControllerDto.builder()
+                        .start(now().plusDays(1))
+                        .end(now().plusDays(2))
+                        .build(),
+                itemAllFieldsDto,
+                booker.getId()
+        );
+        Map<Long, ItemBookingsDto> bookings = bookingService.getLastAndNext(of(itemDto.getId()));
+        ItemBookingsDto itemBookings = bookings.get(itemDto.getId());
+        assertThat(itemBookings.getLastBooking().getId(), equalTo(bookingAllFieldsDto.getId()));
+        assertThat(itemBookings.getNextBooking().getId(), equalTo(next.getId()));
+        assertThat(itemBookings.getNextBooking().getBookerId(), equalTo(booker.getId()));
+    }
+
+    @Test
+    void cancelExpiredTest() {
+        int canceled = bookingService.cancelExpired(now(), 10).getCanceled();
+        Booking booking = entityManager.find(Booking.class, bookingAllFieldsDto.getId());
+        assertThat(canceled, equalTo(1));
+        assertThat(booking.getStatus(), equalTo(CANCELED));
+        assertThat(booking.getVersion(), equalTo(1L));
+        assertThat(bookingService.cancelExpired(now(), 10).getSelected(), equalTo(0));
+    }
+
+    @Test
+    void approveAllTest() {
+        List<BookingDecisionResultDto> results = bookingService.approveAll(
+                of(new BookingDecisionDto(bookingAllFieldsDto.getId(), true),
+                        new BookingDecisionDto(bookingAllFieldsDto.getId() + 1000, true)),
+                owner.getId());
+        Booking booking = entityManager.find(Booking.class, bookingAllFieldsDto.getId());
+        assertThat(results.get(0).getStatus(), equalTo(APPROVED));
+        assertThat(results.get(0).getError(), nullValue());
+        assertThat(results.get(1).getError(), notNullValue());
+        assertThat(booking.getStatus(), equalTo(APPROVED));
+        assertThat(booking.getVersion(), equalTo(1L));
+    }
+
+    @Test
+    void outboxTest() {
+        entityManager.flush();
+        entityManager.clear();
+        bookingService.approve(bookingAllFieldsDto.getId(), true, owner.getId());
+        List<OutboxEvent> events = entityManager.createQuery(
+                        "SELECT event " +
+                                "FROM OutboxEvent event " +
+                                "WHERE event.aggregateId = :id " +
+                                "ORDER BY event.id",
+                        OutboxEvent.class)
+                .setParameter("id", bookingAllFieldsDto.getId())
+                .getResultList();
+        assertThat(events.size(), equalTo(2));
+        assertThat(events.get(0).getType(), equalTo("BOOKING_CREATED"));
+        assertThat(events.get(1).getType(), equalTo("BOOKING_STATUS_CHANGED"));
+    }
 }
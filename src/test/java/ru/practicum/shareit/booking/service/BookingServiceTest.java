@@ -1,15 +1,28 @@
 package ru.practicum.shareit.booking.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import ru.practicum.shareit.booking.cache.ItemBookingsCache;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.repository.BookingStorage;
 import ru.practicum.shareit.booking.dto.BookingAllDto;
 import ru.practicum.shareit.booking.dto.BookingControllerDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.CalendarSlotDto;
+import ru.practicum.shareit.booking.dto.ExpiredBookingsDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
 
 import ru.practicum.shareit.errors.exception.IncorrectParameterException;
 import ru.practicum.shareit.errors.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxStorage;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.StripedLocks;
 
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.model.Booking;
@@ -19,20 +32,26 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static ru.practicum.shareit.user.mapper.UserMapper.toUser;
 import static ru.practicum.shareit.Enums.States.*;
 import static ru.practicum.shareit.Enums.Status.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.springframework.data.domain.Page.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static java.util.Optional.ofNullable;
 import static org.mockito.Mockito.lenient;
 import static java.time.LocalDateTime.*;
+import static java.time.temporal.ChronoUnit.HOURS;
 import static org.mockito.Mockito.*;
 import static java.util.List.*;
 
@@ -45,12 +64,22 @@ class BookingServiceTest {
     private BookingService bookingService;
     @Mock
     private UserService userService;
+    @Mock
+    private OutboxStorage outboxStorage;
     private UserDto userDto;
     private Booking booking;
 
     @BeforeEach
     void initialize() {
-        bookingService = new BookingServiceImpl(userService, bookingStorage);
+        bookingService = new BookingServiceImpl(
+                userService,
+                bookingStorage,
+                new BookingIntervalIndex(bookingStorage),
+                new ItemBookingsCache(Duration.ofMinutes(5), 1000),
+                new StripedLocks(16),
+                new OutboxService(outboxStorage, new ObjectMapper().findAndRegisterModules()));
+        lenient().when(userService.exists(anyLong()))
+                .thenReturn(true);
         bookingControllerDto = bookingControllerDto.builder()
                 .id(1L)
                 .start(now())
@@ -70,7 +99,7 @@ class BookingServiceTest {
                 .id(1L)
                 .start(now())
                 .end(now().plusHours(2))
-                .item(new Item(1L, "pen", "blue pen", true, toUser(userDto), null))
+                .item(new Item(1L, "pen", "blue pen", true, toUser(userDto), null, 0L, 0L))
                 .booker(new User(2L, "Maggie", "maggie@mail.com"))
                 .status(WAITING)
                 .build();
@@ -208,6 +237,191 @@ class BookingServiceTest {
         assertEquals("Вещь с id = " + booking.getItem().getId() + " не можеь быть арендована", exception.getMessage());
     }
 
+    @Test
+    void saveBookingOverlappingTest() {
+        saveBookingDto();
+        bookingControllerDto.setStart(booking.getStart().plusHours(1));
+        bookingControllerDto.setEnd(booking.getEnd().plusHours(1));
+        Exception exception = assertThrows(IncorrectParameterException.class,
+                () -> bookingService.save(
+                        bookingControllerDto,
+                        ItemMapper.toItemAllFieldsDto(
+                                booking.getItem(),
+                                null,
+                                null,
+                                of()),
+                        2L)
+        );
+        assertEquals("Вещь с id = " + booking.getItem().getId() + " уже забронирована на эти даты", exception.getMessage());
+    }
+
+    @Test
+    void saveBookingAfterRejectedTest() {
+        saveBookingDto();
+        when(bookingStorage.findById(anyLong()))
+                .thenReturn(ofNullable(booking));
+        bookingService.approve(booking.getId(), false, userDto.getId());
+        BookingAllDto bookingAllFieldsDto = saveBookingDto();
+        assertEquals(bookingAllFieldsDto.getId(), booking.getId());
+    }
+
+    @Test
+    void getLastAndNextCachedTest() {
+        LocalDateTime nextStart = now().plusDays(1);
+        when(bookingStorage.findLastAndNext(anyCollection(), any()))
+                .thenReturn(of(
+                        new Object[]{BookingStorage.LAST, 1L, 1L, 2L, Timestamp.valueOf(now().minusDays(2))},
+                        new Object[]{BookingStorage.NEXT, 1L, 2L, 2L, Timestamp.valueOf(nextStart)},
+                        new Object[]{BookingStorage.UPCOMING, 1L, 2L, 2L, Timestamp.valueOf(nextStart)}));
+        ItemBookingsDto first = bookingService.getLastAndNext(1L);
+        ItemBookingsDto second = bookingService.getLastAndNext(1L);
+        assertEquals(1L, first.getLastBooking().getId());
+        assertEquals(2L, first.getNextBooking().getId());
+        assertEquals(nextStart, first.getValidUntil());
+        assertEquals(first, second);
+        verify(bookingStorage, times(1)).findLastAndNext(anyCollection(), any());
+    }
+
+    @Test
+    void getLastAndNextBatchTest() {
+        when(bookingStorage.findLastAndNext(anyCollection(), any()))
+                .thenReturn(of());
+        bookingService.getLastAndNext(1L);
+        Map<Long, ItemBookingsDto> bookings = bookingService.getLastAndNext(of(1L, 2L, 3L));
+        assertEquals(3, bookings.size());
+        assertNull(bookings.get(2L).getNextBooking());
+        verify(bookingStorage).findLastAndNext(eq(of(2L, 3L)), any());
+        assertTrue(bookingService.getLastAndNext(of()).isEmpty());
+    }
+
+    @Test
+    void getLastAndNextEvictedOnApproveTest() {
+        when(bookingStorage.findLastAndNext(anyCollection(), any()))
+                .thenReturn(of());
+        when(bookingStorage.findById(anyLong()))
+                .thenReturn(ofNullable(booking));
+        when(bookingStorage.save(any()))
+                .thenReturn(booking);
+        bookingService.getLastAndNext(1L);
+        bookingService.approve(booking.getId(), false, userDto.getId());
+        bookingService.getLastAndNext(1L);
+        verify(bookingStorage, times(2)).findLastAndNext(anyCollection(), any());
+    }
+
+    @Test
+    void cancelExpiredTest() {
+        saveBookingDto();
+        when(bookingStorage.findStartedBefore(eq(WAITING), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{booking.getId(), 1L, booking.getStart(), booking.getEnd(), 2L}));
+        when(bookingStorage.updateStatus(of(booking.getId()), CANCELED, WAITING))
+                .thenReturn(1);
+        assertEquals(new ExpiredBookingsDto(1, 1), bookingService.cancelExpired(now(), 10));
+        bookingControllerDto.setStart(booking.getStart().plusHours(1));
+        bookingControllerDto.setEnd(booking.getEnd().plusHours(1));
+        assertEquals(booking.getId(), saveBookingDto().getId());
+    }
+
+    @Test
+    void cancelExpiredConcurrentlyApprovedTest() {
+        saveBookingDto();
+        when(bookingStorage.findStartedBefore(eq(WAITING), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{booking.getId(), 1L, booking.getStart(), booking.getEnd(), 2L}));
+        when(bookingStorage.updateStatus(anyCollection(), any(), any()))
+                .thenReturn(0);
+        when(bookingStorage.findIdsWithStatus(anyCollection(), eq(CANCELED)))
+                .thenReturn(of());
+        assertEquals(new ExpiredBookingsDto(1, 0), bookingService.cancelExpired(now(), 10));
+        assertThrows(IncorrectParameterException.class, this::saveBookingDto);
+    }
+
+    @Test
+    void approveAllTest() {
+        saveBookingDto();
+        when(bookingStorage.findForDecision(anyCollection()))
+                .thenReturn(of(
+                        new Object[]{1L, 1L, 1L, 2L, WAITING, 0L, booking.getStart(), booking.getEnd()},
+                        new Object[]{2L, 1L, 1L, 2L, APPROVED, 1L, booking.getStart(), booking.getEnd()},
+                        new Object[]{3L, 5L, 7L, 1L, WAITING, 0L, booking.getStart(), booking.getEnd()}));
+        when(bookingStorage.updateStatuses(anyList()))
+                .thenReturn(new int[]{1});
+        List<BookingDecisionResultDto> results = bookingService.approveAll(of(
+                new BookingDecisionDto(1L, false),
+                new BookingDecisionDto(2L, true),
+                new BookingDecisionDto(3L, true),
+                new BookingDecisionDto(4L, true),
+                new BookingDecisionDto(1L, true)), userDto.getId());
+        assertEquals(REJECTED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertEquals("Бронирование не может быть обновлено", results.get(1).getError());
+        assertEquals("Пользователь с id = 1 не может одобрить заявку", results.get(2).getError());
+        assertEquals("Такого бронирования не существует", results.get(3).getError());
+        assertEquals("Бронирование уже есть в запросе", results.get(4).getError());
+        verify(bookingStorage, times(1)).findForDecision(anyCollection());
+        verify(bookingStorage, times(1)).updateStatuses(anyList());
+        assertEquals(booking.getId(), saveBookingDto().getId());
+    }
+
+    @Test
+    void approveAllConcurrentlyChangedTest() {
+        when(bookingStorage.findForDecision(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 1L, 1L, 2L, WAITING, 0L, booking.getStart(), booking.getEnd()}));
+        when(bookingStorage.updateStatuses(anyList()))
+                .thenReturn(new int[]{0});
+        List<BookingDecisionResultDto> results = bookingService.approveAll(
+                of(new BookingDecisionDto(1L, true)), userDto.getId());
+        assertEquals(WAITING, results.get(0).getStatus());
+        assertEquals("Бронирование было изменено другим запросом", results.get(0).getError());
+    }
+
+    @Test
+    void approveAllEmptyTest() {
+        Exception exception = assertThrows(IncorrectParameterException.class,
+                () -> bookingService.approveAll(of(), userDto.getId()));
+        assertEquals("Список решений не может быть пустым", exception.getMessage());
+    }
+
+    @Test
+    void getCalendarTest() {
+        LocalDateTime from = now().truncatedTo(HOURS).plusDays(1);
+        bookingControllerDto.setStart(from.plusHours(2).plusMinutes(30));
+        bookingControllerDto.setEnd(from.plusHours(4));
+        booking.setStart(bookingControllerDto.getStart());
+        booking.setEnd(bookingControllerDto.getEnd());
+        saveBookingDto();
+        List<CalendarSlotDto> slots = bookingService.getCalendar(1L, from, from.plusHours(6));
+        assertEquals(3, slots.size());
+        assertEquals(new CalendarSlotDto(from, from.plusHours(2), false), slots.get(0));
+        assertEquals(new CalendarSlotDto(from.plusHours(2), from.plusHours(4), true), slots.get(1));
+        assertEquals(new CalendarSlotDto(from.plusHours(4), from.plusHours(6), false), slots.get(2));
+        when(bookingStorage.findById(anyLong()))
+                .thenReturn(ofNullable(booking));
+        bookingService.approve(booking.getId(), false, userDto.getId());
+        assertEquals(1, bookingService.getCalendar(1L, from, from.plusHours(6)).size());
+    }
+
+    @Test
+    void getCalendarIncorrectPeriodTest() {
+        assertThrows(IncorrectParameterException.class,
+                () -> bookingService.getCalendar(1L, now().minusDays(2), now()));
+        assertThrows(IncorrectParameterException.class,
+                () -> bookingService.getCalendar(1L, now().plusDays(2), now().plusDays(1)));
+        assertThrows(IncorrectParameterException.class,
+                () -> bookingService.getCalendar(1L, now(), now().plusDays(400)));
+        assertEquals(1, bookingService.getCalendar(1L, null, null).size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveBookingWritesOutboxTest() {
+        saveBookingDto();
+        ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxStorage).append(captor.capture());
+        OutboxEvent event = captor.getValue().get(0);
+        assertEquals("BOOKING_CREATED", event.getType());
+        assertEquals(booking.getId(), event.getAggregateId());
+        assertTrue(event.getPayload().contains("\"status\":\"WAITING\""));
+    }
+
     @Test
     void saveBookingNotAvailableItemTest() {
         booking.getItem().setAvailable(false);
@@ -245,7 +459,8 @@ class BookingServiceTest {
                 booking.getEnd(),
                 booking.getItem(),
                 booking.getBooker(),
-                APPROVED);
+                APPROVED,
+                0L);
         when(bookingStorage.findById(anyLong()))
                 .thenReturn(ofNullable(booking));
         when(bookingStorage.save(any()))
@@ -336,7 +551,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsOrderByStartDesc(any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -376,7 +591,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsFutureStateTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -391,7 +606,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPastStateTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndEndBeforeOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -406,7 +621,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsCurrentStateTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -421,7 +636,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsEmptyTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -435,7 +650,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsRejectStateTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStatusIsOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -450,7 +665,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsCancelStateEmptyTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStatusIsOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -464,7 +679,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPastStateTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -479,7 +694,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerIsOrderByStartDesc(any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -494,7 +709,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdAllStateTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerIsOrderByStartDesc(any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -509,7 +724,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdFutureStateTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -524,7 +739,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdRejectStateTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -539,7 +754,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdCurrentStateTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of(booking));
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -577,8 +792,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPaginationFutureTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingStorage.search(any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 FUTURE.name(),
@@ -591,8 +806,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPaginationAllTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsOrderByStartDesc(any(), any()))
-                .thenReturn(empty());
+        when(bookingStorage.search(any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 ALL.name(),
@@ -605,8 +820,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPaginationPastTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndEndBeforeOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingStorage.search(any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 PAST.name(),
@@ -619,8 +834,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPaginationCurrentTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingStorage.search(any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 CURRENT.name(),
@@ -633,8 +848,8 @@ class BookingServiceTest {
     @Test
     void getAllBookingsPaginationAnyTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStatusIsOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingStorage.search(any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
                 CANCELED.name(),
@@ -647,7 +862,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPastTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -659,7 +874,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdCurrentTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -671,7 +886,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdFutureTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -683,7 +898,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdAnyTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
@@ -695,8 +910,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPaginationNotNullTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerIsOrderByStartDesc(any(), any()))
-                .thenReturn(empty());
+        when(bookingStorage.search(any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 ALL.name(),
@@ -709,8 +924,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPaginationPastTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingStorage.search(any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 PAST.name(),
@@ -723,8 +938,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPaginationCurrentTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingStorage.search(any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 CURRENT.name(),
@@ -737,8 +952,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPaginationFutureTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingStorage.search(any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 FUTURE.name(),
@@ -751,8 +966,8 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdPaginationAnyTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(any(), any(), any()))
-                .thenReturn(empty());
+        when(bookingStorage.search(any()))
+                .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getBookingsByOwner(
                 userDto.getId(),
                 CANCELED.name(),
@@ -765,7 +980,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsAllTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsOrderByStartDesc(any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -777,7 +992,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsCurrentTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -789,7 +1004,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsFutureTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -801,7 +1016,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsAnyTest() {
         saveBookingDto();
-        when(bookingStorage.findBookingsByBookerIsAndStatusIsOrderByStartDesc(any(), any()))
+        when(bookingStorage.search(any()))
                 .thenReturn(of());
         List<BookingAllDto> bookings = bookingService.getAll(
                 userDto.getId(),
@@ -809,4 +1024,87 @@ class BookingServiceTest {
         );
         assertEquals(bookings.size(), 0);
     }
+
+    @Test
+    void getBookingsByOwnerQueryTest() {
+        ArgumentCaptor<BookingQuery> captor = ArgumentCaptor.forClass(BookingQuery.class);
+        when(bookingStorage.search(captor.capture()))
+                .thenReturn(of(booking));
+        bookingService.getBookingsByOwner(
+                userDto.getId(),
+                CURRENT.name(),
+                4,
+                2
+        );
+        BookingQuery query = captor.getValue();
+        assertEquals(BookingQuery.Role.OWNER, query.getRole());
+        assertEquals(userDto.getId(), query.getUserId());
+        assertEquals(CURRENT, query.getState());
+        assertNull(query.getStatus());
+        assertEquals(4, query.getOffset());
+        assertEquals(2, query.getLimit());
+    }
+
+    @Test
+    void getAllBookingsStatusQueryTest() {
+        ArgumentCaptor<BookingQuery> captor = ArgumentCaptor.forClass(BookingQuery.class);
+        when(bookingStorage.search(captor.capture()))
+                .thenReturn(of());
+        bookingService.getAll(
+                userDto.getId(),
+                WAITING.name()
+        );
+        BookingQuery query = captor.getValue();
+        assertEquals(BookingQuery.Role.BOOKER, query.getRole());
+        assertNull(query.getState());
+        assertEquals(WAITING, query.getStatus());
+        assertNull(query.getLimit());
+    }
+
+    @Test
+    void getAllBookingsByCursorTest() {
+        Booking older = Booking.builder()
+                .id(2L)
+                .start(booking.getStart().minusDays(1))
+                .end(booking.getEnd().minusDays(1))
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .status(WAITING)
+                .build();
+        ArgumentCaptor<BookingQuery> captor = ArgumentCaptor.forClass(BookingQuery.class);
+        when(bookingStorage.search(captor.capture()))
+                .thenReturn(of(booking, older));
+        BookingPageDto page = bookingService.getAllAfter(userDto.getId(), null, "", 1);
+        assertEquals(1, page.getBookings().size());
+        assertEquals(booking.getId(), page.getBookings().get(0).getId());
+        assertEquals(2, captor.getValue().getLimit());
+        assertNull(captor.getValue().getAfterId());
+
+        when(bookingStorage.search(captor.capture()))
+                .thenReturn(of(older));
+        BookingPageDto next = bookingService.getAllAfter(userDto.getId(), null, page.getNextCursor(), 1);
+        assertEquals(booking.getStart(), captor.getValue().getAfterStart());
+        assertEquals(booking.getId(), captor.getValue().getAfterId());
+        assertEquals(older.getId(), next.getBookings().get(0).getId());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getAllUnknownUserTest() {
+        when(userService.exists(99L))
+                .thenReturn(false);
+        Exception exception = assertThrows(ObjectNotFoundException.class,
+                () -> bookingService.getAll(99L, ALL.name()));
+        assertEquals("Пользователь с id = 99 не найден", exception.getMessage());
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingService.getBookingsByOwnerAfter(99L, null, "", 1));
+        verify(bookingStorage, never()).search(any());
+    }
+
+    @Test
+    void getBookingsByOwnerIncorrectCursorTest() {
+        Exception exception = assertThrows(IncorrectParameterException.class,
+                () -> bookingService.getBookingsByOwnerAfter(userDto.getId(), null, "###", 1));
+        assertEquals("Некорректный курсор: ###", exception.getMessage());
+    }
 }
@@ -6,15 +6,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.CalendarSlotDto;
 import ru.practicum.shareit.errors.exception.IncorrectParameterException;
 import ru.practicum.shareit.errors.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemAllDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import java.time.LocalDateTime;
+
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 
@@ -25,6 +29,7 @@ import static java.time.LocalDateTime.now;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -58,7 +63,9 @@ class ItemControllerTest {
             null,
             null,
             null,
-            of(commentDto));
+            of(commentDto),
+            0L,
+            null);
 
     private final ItemDto itemDto = ItemDto.builder()
             .id(1L)
@@ -241,4 +248,61 @@ class ItemControllerTest {
                 )
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void getCalendarTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemService.getCalendar(1L, 1L, from, from.plusDays(1)))
+                .thenReturn(of(
+                        new CalendarSlotDto(from, from.plusHours(10), false),
+                        new CalendarSlotDto(from.plusHours(10), from.plusDays(1), true)));
+        mvc.perform(get("/items/{itemId}/calendar", 1)
+                        .header(headerSharerUserId, 1)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00")
+                )
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].busy", is(false)))
+                .andExpect(jsonPath("$[1].busy", is(true)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void suggestTest() throws Exception {
+        when(itemService.suggest("bl", 5))
+                .thenReturn(of("blue pen", "blue pencil"));
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "bl")
+                        .param("size", "5")
+                )
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", is("blue pen")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getCommentsTest() throws Exception {
+        when(itemService.getComments(1L, null, 1))
+                .thenReturn(new CommentPageDto(of(commentDto), "next"));
+        mvc.perform(get("/items/1/comments")
+                        .param("size", "1")
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].text", is(commentDto.getText())))
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getByIdsTest() throws Exception {
+        when(itemService.getByIds(of(1L, 2L), 1L))
+                .thenReturn(of(itemExtendedDto));
+        mvc.perform(get("/items")
+                        .header(headerSharerUserId, 1)
+                        .param("ids", "1,2")
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(status().isOk());
+    }
 }
@@ -62,7 +62,9 @@ class ItemDtoTest {
                 null,
                 new BookingDto(1L, 1L),
                 null,
-                of()
+                of(),
+                0L,
+                null
         );
         JsonContent<ItemAllDto> jsonContent = itemAllFieldsDtoJacksonTester.write(itemAllFieldsDto);
         assertThat(jsonContent)
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.repository.ItemStorage;
+
+import static java.util.List.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseItemSearchTest {
+    @Mock
+    private ItemStorage itemStorage;
+
+    @Test
+    void searchTrigramTest() {
+        PageRequest pageRequest = PageRequest.of(2, 5, Sort.by("id").ascending());
+        when(itemStorage.getAllTextTrigram("drill", PageRequest.of(2, 5)))
+                .thenReturn(of());
+        assertEquals(of(), new DatabaseItemSearch(itemStorage, true).search("drill", pageRequest));
+        verify(itemStorage, never()).getAllText(anyString());
+    }
+
+    @Test
+    void searchFallbackTest() {
+        when(itemStorage.getAllText("drill"))
+                .thenReturn(of());
+        assertEquals(of(), new DatabaseItemSearch(itemStorage, false).search("drill", null));
+        verify(itemStorage, never()).getAllTextTrigram(anyString());
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static java.util.List.of;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameTrieTest {
+    @Test
+    void topTest() {
+        NameTrie trie = new NameTrie(2);
+        trie.add("drill", "Drill");
+        trie.add("drill", "Drill");
+        trie.add("dryer", "Dryer");
+        trie.add("driver", "Driver");
+        trie.add("hammer", "Hammer");
+        assertEquals(of("Drill", "Driver"), trie.top("dr", 10));
+        assertEquals(of("Drill"), trie.top("dr", 1));
+        assertEquals(of("Dryer"), trie.top("dry", 10));
+        assertEquals(of("Drill", "Driver"), trie.top("", 2));
+        assertEquals(of(), trie.top("drx", 10));
+        assertEquals(of(), trie.top("drilling", 10));
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    void removeTest() {
+        NameTrie trie = new NameTrie(3);
+        trie.add("drill", "Drill");
+        trie.add("drill", "Drill");
+        trie.add("driver", "Driver");
+        trie.remove("drill");
+        assertEquals(of("Drill", "Driver"), trie.top("dri", 10));
+        trie.remove("drill");
+        assertEquals(of("Driver"), trie.top("dri", 10));
+        trie.remove("driver");
+        assertEquals(of(), trie.top("", 10));
+        assertEquals(0, trie.size());
+        trie.remove("missing");
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    void randomizedTest() {
+        Random random = new Random(5);
+        NameTrie trie = new NameTrie(5);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String name = word(random);
+            if (random.nextInt(3) == 0 && counts.containsKey(name)) {
+                trie.remove(name);
+                counts.computeIfPresent(name, (key, count) -> count == 1 ? null : count - 1);
+            } else {
+                trie.add(name, name);
+                counts.merge(name, 1, Integer::sum);
+            }
+        }
+        for (int i = 0; i < 300; i++) {
+            String prefix = word(random).substring(0, 1 + random.nextInt(2));
+            List<String> expected = new ArrayList<>(counts.keySet()).stream()
+                    .filter(name -> name.startsWith(prefix))
+                    .sorted(Comparator.comparing((String name) -> -counts.get(name)).thenComparing(name -> name))
+                    .limit(5)
+                    .collect(toList());
+            assertEquals(expected, trie.top(prefix, 5));
+        }
+        assertEquals(counts.size(), trie.size());
+        assertTrue(trie.estimateBytes() > 0);
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 2 + random.nextInt(5); i++)
+            word.append((char) ('a' + random.nextInt(3)));
+        return word.toString();
+    }
+}
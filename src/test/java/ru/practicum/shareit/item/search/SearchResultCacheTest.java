@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.List.of;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private SearchResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void initialize() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SearchResultCache(new ObjectMapper(), meterRegistry, 2, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    private List<ItemDto> load(String text) {
+        return cache.get(text, 0, 10, () -> {
+            loads.incrementAndGet();
+            return of(new ItemDto(1L, "Drill", "Cordless drill", true, null));
+        });
+    }
+
+    @Test
+    void getTest() {
+        load("Drill");
+        List<ItemDto> page = load("dRILL");
+        assertEquals(1, loads.get());
+        assertEquals("Drill", page.get(0).getName());
+        assertEquals(0.5, cache.hitRatio());
+        assertEquals(1.0, meterRegistry.counter("shareit.items.search.cache.hits").count());
+    }
+
+    @Test
+    void evictByTokenTest() {
+        load("drill");
+        load("hammer");
+        cache.evict("Cordless driil", "Blue");
+        assertEquals(1, cache.size());
+        load("hammer");
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.counter("shareit.items.search.cache.evictions").count());
+    }
+
+    @Test
+    void evictBySubstringTest() {
+        load("ock");
+        cache.evict("Pocket", "Deep pocket");
+        load("ock");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void expireTest() {
+        cache = new SearchResultCache(new ObjectMapper(), meterRegistry, 2, Duration.ZERO);
+        load("drill");
+        load("drill");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void maxSizeTest() {
+        load("drill");
+        load("hammer");
+        load("saw");
+        assertEquals(2, cache.size());
+        load("drill");
+        assertEquals(4, loads.get());
+    }
+}
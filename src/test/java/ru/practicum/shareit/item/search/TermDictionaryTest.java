@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermDictionaryTest {
+    @Test
+    void distanceTest() {
+        assertEquals(0, TermDictionary.distance("drill", "drill", 2));
+        assertEquals(1, TermDictionary.distance("drill", "dril", 2));
+        assertEquals(2, TermDictionary.distance("drill", "drlil", 2));
+        assertEquals(3, TermDictionary.distance("drill", "hammer", 2));
+    }
+
+    @Test
+    void similarTest() {
+        TermDictionary dictionary = new TermDictionary();
+        dictionary.add("screwdriver");
+        dictionary.add("drill");
+        dictionary.add("drill");
+        assertEquals(Map.of("drill", 1), dictionary.similar("dril"));
+        assertEquals(Map.of("screwdriver", 2), dictionary.similar("scrwedriver"));
+        assertEquals(Map.of(), dictionary.similar("dri"));
+        assertEquals(2, dictionary.documentFrequency("drill"));
+        dictionary.remove("drill");
+        assertEquals(1, dictionary.documentFrequency("drill"));
+        dictionary.remove("drill");
+        assertEquals(Map.of(), dictionary.similar("dril"));
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.List.of;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+    @Test
+    void searchTest() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Drill", "Cordless drill", true);
+        index.put(2L, "Saw", "Drilled handle", true);
+        index.put(3L, "Hammer", "Heavy", true);
+        assertEquals(of(1L, 2L), index.search("DRILL", 0, 10));
+        assertEquals(of(3L), index.search("mmer", 0, 10));
+        assertEquals(of(), index.search("drills x", 0, 10));
+    }
+
+    @Test
+    void searchRankedTest() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Box", "Box for a drill", true);
+        index.put(2L, "Drill", "Drill with a drill bit", true);
+        index.put(3L, "Bag", "Bag", true);
+        assertEquals(of(2L, 1L), index.search("drill", 0, 10));
+        assertEquals(of(1L), index.search("drill", 1, 10));
+        assertEquals(of(2L), index.search("drill", 0, 1));
+    }
+
+    @Test
+    void searchTypoTest() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Screwdriver", "Cordless screwdriver", true);
+        index.put(2L, "Hammer", "Heavy", true);
+        assertEquals(of(1L), index.search("scrwedriver", 0, 10));
+        assertEquals(of(1L), index.search("cordles screwdrivr", 0, 10));
+        assertEquals(of(2L), index.search("hamer", 0, 10));
+        assertEquals(of(), index.search("hummus", 0, 10));
+    }
+
+    @Test
+    void searchNotAvailableTest() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Drill", "Cordless", false);
+        assertEquals(of(), index.search("drill", 0, 10));
+        index.put(1L, "Drill", "Cordless", true);
+        assertEquals(of(1L), index.search("drill", 0, 10));
+    }
+
+    @Test
+    void searchAvailabilityFlipTest() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Screwdriver", "Cordless", true);
+        index.put(2L, "Screwdriver", "Manual", false);
+        assertEquals(of(1L), index.search("scrwedriver", 0, 10));
+        index.put(1L, "Screwdriver", "Cordless", false);
+        index.put(2L, "Screwdriver", "Manual", true);
+        assertEquals(of(2L), index.search("screwdriver", 0, 10));
+        assertEquals(of(2L), index.search("scrwedriver", 0, 10));
+        index.remove(2L);
+        assertEquals(of(), index.search("screwdriver", 0, 10));
+    }
+
+    @Test
+    void putReplacesTest() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Drill", "Cordless", true);
+        TrigramIndex.Doc previous = index.put(1L, "Saw", "Hand", true);
+        assertEquals("Drill", previous.name);
+        assertEquals(of(), index.search("drill", 0, 10));
+        assertEquals(of(1L), index.search("saw", 0, 10));
+        index.remove(1L);
+        assertEquals(of(), index.search("saw", 0, 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void randomizedTest() {
+        Random random = new Random(11);
+        TrigramIndex index = new TrigramIndex();
+        String[] names = new String[500];
+        String[] descriptions = new String[500];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = word(random);
+            descriptions[i] = word(random);
+            index.put(i, names[i], descriptions[i], true);
+        }
+        for (int i = 0; i < 200; i++) {
+            String query = word(random).substring(0, 3);
+            List<Long> expected = new ArrayList<>();
+            for (int j = 0; j < names.length; j++)
+                if (names[j].contains(query) || descriptions[j].contains(query)) expected.add((long) j);
+            List<Long> found = new ArrayList<>(index.search(query, 0, Integer.MAX_VALUE));
+            found.sort(null);
+            assertEquals(expected, found);
+        }
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 3 + random.nextInt(8); i++)
+            word.append((char) ('a' + random.nextInt(4)));
+        return word.toString();
+    }
+}
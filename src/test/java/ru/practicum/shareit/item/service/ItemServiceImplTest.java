@@ -10,6 +10,7 @@ import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -42,6 +43,7 @@ class ItemServiceImplTest {
     private final ItemService itemService;
     private UserDto userDto;
     private ItemDto itemDto;
+    private int bookingsCount;
 
     @BeforeEach
     void initialize() {
@@ -64,11 +66,12 @@ class ItemServiceImplTest {
 
     private CommentDto saveCommentDto(String commentText, UserDto userDto) {
         UserDto booker = userService.save(userDto);
+        long shift = 2L * bookingsCount++;
         bookingService.save(
                 new BookingControllerDto(
                         null,
-                        now().minusSeconds(2),
-                        now().minusSeconds(1),
+                        now().minusSeconds(2 + shift),
+                        now().minusSeconds(1 + shift),
                         itemDto.getId(),
                         booker.getId(),
                         null),
@@ -77,11 +80,13 @@ class ItemServiceImplTest {
                         itemDto.getName(),
                         itemDto.getDescription(),
                         true,
-                        userDto.getId(),
+                        this.userDto.getId(),
                         null,
                         null,
                         null,
-                        of()),
+                        of(),
+                        0L,
+                        null),
                 booker.getId()
         );
         var commentDto = new CommentDto(
@@ -149,6 +154,40 @@ class ItemServiceImplTest {
         assertThat(item.getId(), notNullValue());
     }
 
+    @Test
+    void getNextBookingAfterSaveTest() {
+        ItemAllDto before = itemService.get(itemDto.getId(), userDto.getId());
+        UserDto booker = userService.save(new UserDto(null, "Kate", "kate@mail.com"));
+        var booking = bookingService.save(
+                new BookingControllerDto(
+                        null,
+                        now().plusDays(1),
+                        now().plusDays(2),
+                        itemDto.getId(),
+                        booker.getId(),
+                        null),
+                new ItemAllDto(
+                        itemDto.getId(),
+                        itemDto.getName(),
+                        itemDto.getDescription(),
+                        true,
+                        this.userDto.getId(),
+                        null,
+                        null,
+                        null,
+                        of(),
+                        0L,
+                        null),
+                booker.getId()
+        );
+        ItemAllDto after = itemService.get(itemDto.getId(), userDto.getId());
+        ItemAllDto notOwner = itemService.get(itemDto.getId(), booker.getId());
+        assertThat(before.getNextBooking(), nullValue());
+        assertThat(after.getNextBooking().getId(), equalTo(booking.getId()));
+        assertThat(after.getNextBooking().getBookerId(), equalTo(booker.getId()));
+        assertThat(notOwner.getNextBooking(), nullValue());
+    }
+
     @Test
     void getAllTest() {
         itemDto = itemService.save(
@@ -173,6 +212,24 @@ class ItemServiceImplTest {
         assertThat(items.size(), equalTo(allItems.size()));
     }
 
+    @Test
+    void getAllCommentsPerItemTest() {
+        ItemDto commented = itemDto;
+        ItemDto other = itemService.save(new ItemDto(null, "Doll", "Tall doll", true, null), null, userDto.getId());
+        CommentDto comment = null;
+        for (int i = 0; i <= ItemServiceImpl.COMMENTS_PAGE_SIZE; i++)
+            comment = saveCommentDto("Nice pen " + i, new UserDto(null, "Ann" + i, "ann" + i + "@mail.com"));
+        List<ItemAllDto> allItems = itemService.getAll(userDto.getId(), null, null);
+        assertThat(allItems.size(), equalTo(2));
+        assertThat(allItems.get(0).getId(), equalTo(commented.getId()));
+        assertThat(allItems.get(0).getComments().size(), equalTo(ItemServiceImpl.COMMENTS_PAGE_SIZE));
+        assertThat(allItems.get(0).getComments().get(0).getId(), equalTo(comment.getId()));
+        assertThat(allItems.get(0).getCommentsCursor(), notNullValue());
+        assertThat(allItems.get(1).getId(), equalTo(other.getId()));
+        assertThat(allItems.get(1).getComments(), empty());
+        assertThat(allItems.get(1).getCommentsCursor(), nullValue());
+    }
+
     @Test
     void searchNotAvailableItemTest() {
         itemDto = itemService.save(
@@ -198,6 +255,60 @@ class ItemServiceImplTest {
         assertThat(items, empty());
     }
 
+    @Test
+    void getByIdsTest() {
+        saveCommentDto(
+                "Autumn",
+                new UserDto(
+                        null,
+                        "Nora",
+                        "nora@mail.com")
+        );
+        UserDto stranger = userService.save(
+                new UserDto(
+                        null,
+                        "Kate",
+                        "kate@mail.com")
+        );
+        ItemDto strangerItem = itemService.save(
+                new ItemDto(null,
+                        "Pencil",
+                        "Red pencil",
+                        true,
+                        null),
+                null,
+                stranger.getId()
+        );
+        List<ItemAllDto> items = itemService.getByIds(
+                of(strangerItem.getId(), itemDto.getId(), itemDto.getId() + 1000, itemDto.getId()),
+                userDto.getId());
+        assertThat(items.size(), equalTo(2));
+        assertThat(items.get(0).getId(), equalTo(strangerItem.getId()));
+        assertThat(items.get(0).getComments(), empty());
+        assertThat(items.get(0).getLastBooking(), nullValue());
+        assertThat(items.get(1).getId(), equalTo(itemDto.getId()));
+        assertThat(items.get(1).getComments().size(), equalTo(1));
+        assertThat(items.get(1).getLastBooking(), notNullValue());
+        assertThat(itemService.getByIds(of(itemDto.getId() + 1000), userDto.getId()), empty());
+    }
+
+    @Test
+    void suggestAvailableFlipTest() {
+        itemDto = itemService.save(
+                new ItemDto(
+                        null,
+                        "Zeppelin",
+                        "Small zeppelin",
+                        true,
+                        null),
+                null,
+                userDto.getId()
+        );
+        assertThat(itemService.suggest("zep", null), equalTo(of("Zeppelin")));
+        itemService.update(new ItemDto(null, null, null, false, null), itemDto.getId(), userDto.getId());
+        assertThat(itemService.suggest("zep", null), empty());
+    }
+
     @Test
     void searchTest() {
         itemDto = itemService.save(
@@ -335,6 +446,23 @@ class ItemServiceImplTest {
         assertThat(comment.getId(), notNullValue());
     }
 
+    @Test
+    void getCommentsPageTest() {
+        CommentDto first = saveCommentDto("First", new UserDto(null, "Ann", "ann@mail.com"));
+        CommentDto second = saveCommentDto("Second", new UserDto(null, "Bob", "bob@mail.com"));
+        CommentDto third = saveCommentDto("Third", new UserDto(null, "Kim", "kim@mail.com"));
+        CommentPageDto page = itemService.getComments(itemDto.getId(), null, 2);
+        CommentPageDto rest = itemService.getComments(itemDto.getId(), page.getNextCursor(), 2);
+        ItemAllDto item = itemService.get(itemDto.getId(), userDto.getId());
+        assertThat(page.getComments().size(), equalTo(2));
+        assertThat(page.getComments().get(0).getId(), equalTo(third.getId()));
+        assertThat(page.getComments().get(1).getId(), equalTo(second.getId()));
+        assertThat(rest.getComments().get(0).getId(), equalTo(first.getId()));
+        assertThat(rest.getNextCursor(), nullValue());
+        assertThat(item.getCommentsCount(), equalTo(3L));
+        assertThat(item.getCommentsCursor(), nullValue());
+    }
+
     @Test
     void getItemsByRequestIdEmptyResultTest() {
         UserDto requester = userService.save(
@@ -6,7 +6,12 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.CommentStorage;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.repository.ItemStorage;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestions;
+import ru.practicum.shareit.item.search.SearchResultCache;
 import ru.practicum.shareit.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -18,12 +23,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static java.time.LocalDateTime.now;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static java.util.List.*;
 import static ru.practicum.shareit.user.mapper.UserMapper.toUser;
@@ -50,7 +58,10 @@ class ItemServiceTest {
                 itemRepository,
                 userService,
                 commentRepository,
-                bookingService
+                bookingService,
+                new ItemSearchIndex(itemRepository),
+                new SearchResultCache(new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1)),
+                new ItemSuggestions(itemRepository, new SimpleMeterRegistry())
         );
         userDto = new UserDto(
                 1L,
@@ -62,7 +73,9 @@ class ItemServiceTest {
                 "Deep pocket",
                 true,
                 toUser(userDto),
-                null);
+                null,
+                0L,
+                0L);
         itemDto = ItemMapper.toItemDto(item);
     }
 
@@ -90,7 +103,9 @@ class ItemServiceTest {
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 toUser(userDto),
-                null
+                null,
+                0L,
+                0L
         );
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(item));
@@ -104,10 +119,10 @@ class ItemServiceTest {
     @Test
     void searchTest() {
         saveItemDto();
-        when(itemRepository.getAllText(anyString()))
+        when(itemRepository.findAllById(of(item.getId())))
                 .thenReturn(of(item));
         List<ItemDto> search = itemService.getByText(
-                "oops",
+                "DEEP",
                 userDto.getId(),
                 null,
                 null
@@ -116,6 +131,50 @@ class ItemServiceTest {
         assertEquals(search.size(), 1);
     }
 
+    @Test
+    void searchShortTextTest() {
+        when(itemRepository.getAllText(anyString()))
+                .thenReturn(of(item));
+        List<ItemDto> search = itemService.getByText(
+                "po",
+                userDto.getId(),
+                null,
+                null
+        );
+        assertEquals(search.get(0).getId(), item.getId());
+    }
+
+    @Test
+    void searchCachedTest() {
+        when(itemRepository.getAllText(anyString()))
+                .thenReturn(of(item));
+        itemService.getByText("po", userDto.getId(), null, null);
+        List<ItemDto> search = itemService.getByText("PO", userDto.getId(), null, null);
+        assertEquals(search.get(0).getId(), item.getId());
+        verify(itemRepository, times(1)).getAllText(anyString());
+    }
+
+    @Test
+    void searchPageTest() {
+        saveItemDto();
+        List<ItemDto> search = itemService.getByText(
+                "pocket",
+                userDto.getId(),
+                1,
+                1
+        );
+        assertEquals(search.size(), 0);
+    }
+
+    @Test
+    void suggestTest() {
+        saveItemDto();
+        assertEquals(of("Pocket"), itemService.suggest("PO", null));
+        assertEquals(of(), itemService.suggest("pa", 5));
+        assertEquals(of(), itemService.suggest(" ", 5));
+        assertThrows(IncorrectParameterException.class, () -> itemService.suggest("po", 0));
+    }
+
     @Test
     void updateNullOwnerTest() {
         Exception exception = assertThrows(IncorrectParameterException.class,
@@ -161,8 +220,6 @@ class ItemServiceTest {
     @Test
     void searchEmptyResultTest() {
         saveItemDto();
-        when(itemRepository.getAllText(anyString()))
-                .thenReturn(of());
         List<ItemDto> search = itemService.getByText(
                 "Golden hand",
                 userDto.getId(),
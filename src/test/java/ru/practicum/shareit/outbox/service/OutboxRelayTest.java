@@ -0,0 +1,67 @@
+package ru.practicum.shareit.outbox.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private OutboxSink firstSink;
+    @Mock
+    private OutboxSink secondSink;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void initialize() {
+        relay = new OutboxRelay(outboxService, List.of(firstSink, secondSink), 2);
+    }
+
+    private OutboxEvent event(Long id) {
+        return new OutboxEvent(id, "BOOKING_CREATED", id, "{}", LocalDateTime.now());
+    }
+
+    @Test
+    void relayInBatchesTest() {
+        List<OutboxEvent> first = List.of(event(1L), event(2L));
+        List<OutboxEvent> second = List.of(event(3L));
+        when(outboxService.poll(2))
+                .thenReturn(first, second);
+        assertEquals(3, relay.relay());
+        verify(firstSink).send(first);
+        verify(secondSink).send(second);
+        verify(outboxService).acknowledge(List.of(1L, 2L));
+        verify(outboxService).acknowledge(List.of(3L));
+    }
+
+    @Test
+    void relaySinkFailureTest() {
+        when(outboxService.poll(anyInt()))
+                .thenReturn(List.of(event(1L)));
+        doThrow(new IllegalStateException("down")).when(secondSink).send(any());
+        assertEquals(0, relay.relay());
+        verify(outboxService, never()).acknowledge(any());
+    }
+
+    @Test
+    void relayEmptyTest() {
+        when(outboxService.poll(anyInt()))
+                .thenReturn(List.of());
+        assertEquals(0, relay.relay());
+        verifyNoInteractions(firstSink, secondSink);
+    }
+}
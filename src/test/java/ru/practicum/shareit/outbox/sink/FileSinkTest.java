@@ -0,0 +1,32 @@
+package ru.practicum.shareit.outbox.sink;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileSinkTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void sendTest(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("outbox.log");
+        FileSink sink = new FileSink(path, objectMapper);
+        sink.send(List.of(new OutboxEvent(1L, "BOOKING_CREATED", 5L, "{\"status\":\"WAITING\"}", LocalDateTime.now())));
+        sink.send(List.of(new OutboxEvent(2L, "BOOKING_STATUS_CHANGED", 5L, "{\"status\":\"APPROVED\"}", LocalDateTime.now())));
+        List<String> lines = Files.readAllLines(path);
+        JsonNode last = objectMapper.readTree(lines.get(1));
+        assertEquals(2, lines.size());
+        assertEquals("BOOKING_STATUS_CHANGED", last.get("type").asText());
+        assertEquals("APPROVED", last.get("payload").get("status").asText());
+        assertEquals(5L, last.get("aggregateId").asLong());
+    }
+}
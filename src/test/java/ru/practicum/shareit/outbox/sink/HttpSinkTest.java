@@ -0,0 +1,59 @@
+package ru.practicum.shareit.outbox.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class HttpSinkTest {
+    private static final String URL = "http://localhost:9090/events";
+
+    private MockRestServiceServer server;
+    private HttpSink sink;
+
+    @BeforeEach
+    void initialize() {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        sink = new HttpSink(URL, new RestTemplateBuilder(customizer), new ObjectMapper(),
+                Duration.ofSeconds(1), Duration.ofSeconds(1));
+        server = customizer.getServer();
+    }
+
+    @Test
+    void sendTest() {
+        server.expect(requestTo(URL))
+                .andExpect(method(POST))
+                .andExpect(jsonPath("$[0].type").value("BOOKING_CREATED"))
+                .andExpect(jsonPath("$[0].aggregateId").value(5))
+                .andRespond(withSuccess());
+        sink.send(List.of(event()));
+        server.verify();
+    }
+
+    @Test
+    void sendFailsOnErrorTest() {
+        server.expect(requestTo(URL))
+                .andRespond(withServerError());
+        assertThrows(HttpServerErrorException.class, () -> sink.send(List.of(event())));
+    }
+
+    private OutboxEvent event() {
+        return new OutboxEvent(1L, "BOOKING_CREATED", 5L, "{\"status\":\"WAITING\"}", LocalDateTime.now());
+    }
+}
@@ -11,8 +11,17 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.dto.UserPageDto;
+import ru.practicum.shareit.user.dto.UserImportErrorDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
+import java.io.BufferedReader;
 import java.util.List;
+import java.util.function.Consumer;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.http.MediaType.*;
@@ -20,6 +29,9 @@ import static java.nio.charset.StandardCharsets.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -108,6 +120,76 @@ class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllByCursorTest() throws Exception {
+        when(userService.getAllAfter("", 1))
+                .thenReturn(new UserPageDto(List.of(userDto), "1"));
+        mvc.perform(get("/users")
+                        .param("cursor", "")
+                        .param("size", "1")
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllBySizeTest() throws Exception {
+        when(userService.getAllAfter(null, 1))
+                .thenReturn(new UserPageDto(List.of(userDto), "1"));
+        mvc.perform(get("/users")
+                        .param("size", "1")
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(status().isOk());
+        verify(userService, never()).getAll();
+    }
+
+    @Test
+    void streamTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDto);
+            action.accept(userDto);
+            return null;
+        }).when(userService).forEach(any());
+        MvcResult result = mvc.perform(get("/users")
+                        .accept(APPLICATION_NDJSON)
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String line = mapper.writeValueAsString(userDto) + "\n";
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_NDJSON))
+                .andExpect(content().string(line + line));
+    }
+
+    @Test
+    void importTest() throws Exception {
+        when(userService.importUsers(any()))
+                .thenAnswer(invocation -> {
+                    BufferedReader reader = invocation.getArgument(0);
+                    long lines = reader.lines().count();
+                    return new UserImportResultDto(lines - 1, 1,
+                            List.of(new UserImportErrorDto(2, "bad", "Неверно задан email")));
+                });
+        mvc.perform(post("/users/bulk")
+                        .content("{\"name\":\"Ann\",\"email\":\"ann@mail.com\"}\n"
+                                + "{\"name\":\"Bob\",\"email\":\"bad\"}\n")
+                        .contentType(APPLICATION_NDJSON)
+                        .characterEncoding(UTF_8)
+                        .accept(APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)))
+                .andExpect(jsonPath("$.errors[0].email", is("bad")));
+    }
+
     @Test
     void saveUserEmailExceptionTest() throws Exception {
         when(userService.save(any(UserDto.class)))
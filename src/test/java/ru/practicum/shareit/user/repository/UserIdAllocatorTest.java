@@ -0,0 +1,37 @@
+package ru.practicum.shareit.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.user.model.User.ID_ALLOCATION_SIZE;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class UserIdAllocatorTest {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void movesSequencePastExistingIdsTest() {
+        long id = jdbcTemplate.queryForObject("values next value for users_seq", Long.class) + 10_000;
+        jdbcTemplate.update("insert into users (id, name, email) values (?, ?, ?)", id, "Old", "old@mail.com");
+        try {
+            UserIdAllocator allocator = new UserIdAllocator(jdbcTemplate, false);
+            assertEquals(id + 1, allocator.next());
+            assertEquals(id + 2, allocator.next());
+        } finally {
+            jdbcTemplate.update("delete from users where id = ?", id);
+        }
+    }
+
+    @Test
+    void neverMovesSequenceBackTest() {
+        long first = new UserIdAllocator(jdbcTemplate, false).next();
+        long second = new UserIdAllocator(jdbcTemplate, false).next();
+        assertTrue(second >= first + ID_ALLOCATION_SIZE);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailValidatorTest {
+    /**
+     * The expression UserServiceImpl used before the validator, kept to check that valid addresses are still accepted.
+     */
+    private static final Pattern REGEX = Pattern.compile("(?:[A-Za-z0-9!#$%&'*+/=?.^_`{|}~]" +
+            "+(?:.[a-z0-9!#$%&'*+/=?^_`{|}~]+)*|" +
+            "\\\"(?:[x01-x08x0bx0cx0e-x1fx21x23-x5bx5d-x7f]|[x01-x09x0bx0cx0e-x7f])*\\\")" +
+            "@(?:(?:[a-z0-9](?:[a-z0-9-]*[a-z0-9])?.)" +
+            "+[a-z0-9](?:[a-z0-9-]*[a-z0-9])?|" +
+            "[(?:(?:(2(5[0-5]|[0-4][0-9])|1[0-9][0-9]|[1-9]?[0-9])).){3}(?:(2(5[0-5]|" +
+            "[0-4][0-9])|1[0-9][0-9]|[1-9]?[0-9])|[a-z0-9-]*[a-z0-9]:(?:[x01-x08x0bx0cx0e-x1fx21-x5ax53-x7f]" +
+            "|[x01-x09x0bx0cx0e-x7f])+)])");
+    private static final String LOCAL = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!#$%&'*+/=?^_`{|}~";
+    private static final String HOST = "abcdefghijklmnopqrstuvwxyz0123456789";
+
+    private final EmailValidator validator = new EmailValidator();
+
+    @Test
+    void validTest() {
+        assertTrue(validator.isValid("john@mail.com"));
+        assertTrue(validator.isValid("John.Smith+shareit@Mail.Example.COM"));
+        assertTrue(validator.isValid("o'neil@sub-domain.example.org"));
+        assertTrue(validator.isValid("-{x}|y~@a.b"));
+        assertTrue(validator.isValid("a".repeat(64) + "@" + "b".repeat(63) + ".com"));
+    }
+
+    @Test
+    void invalidTest() {
+        assertFalse(validator.isValid(null));
+        assertFalse(validator.isValid(""));
+        assertFalse(validator.isValid("mail"));
+        assertFalse(validator.isValid("@mail.com"));
+        assertFalse(validator.isValid("john@"));
+        assertFalse(validator.isValid("john@mail"));
+        assertFalse(validator.isValid(".john@mail.com"));
+        assertFalse(validator.isValid("john.@mail.com"));
+        assertFalse(validator.isValid("jo..hn@mail.com"));
+        assertFalse(validator.isValid("jo hn@mail.com"));
+        assertFalse(validator.isValid("john@@mail.com"));
+        assertFalse(validator.isValid("john@mail..com"));
+        assertFalse(validator.isValid("john@.mail.com"));
+        assertFalse(validator.isValid("john@mail.com."));
+        assertFalse(validator.isValid("john@-mail.com"));
+        assertFalse(validator.isValid("john@mail-.com"));
+        assertFalse(validator.isValid("john@mail,com"));
+        assertFalse(validator.isValid("john@mail_box.com"));
+        assertFalse(validator.isValid("jöhn@mail.com"));
+        assertFalse(validator.isValid("\"john\"@mail.com"));
+        assertFalse(validator.isValid("a".repeat(65) + "@mail.com"));
+        assertFalse(validator.isValid("john@" + "b".repeat(64) + ".com"));
+        assertFalse(validator.isValid("john@" + "b.".repeat(125) + "com"));
+    }
+
+    @Test
+    void acceptsWhatRegexAcceptsTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String email = randomEmail(random);
+            assertTrue(REGEX.matcher(email).matches(), email);
+            assertTrue(validator.isValid(email), email);
+        }
+    }
+
+    @Test
+    void pathologicalInputIsLinearTest() {
+        String input = "a".repeat(64) + "@" + "a-a.".repeat(40) + "!";
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            for (int i = 0; i < 10_000; i++)
+                assertFalse(validator.isValid(input));
+        });
+    }
+
+    private static String randomEmail(Random random) {
+        StringBuilder email = new StringBuilder();
+        int atoms = 1 + random.nextInt(3);
+        for (int atom = 0; atom < atoms; atom++) {
+            if (atom > 0) email.append('.');
+            append(email, LOCAL, 1 + random.nextInt(12), random);
+        }
+        email.append('@');
+        int labels = 2 + random.nextInt(3);
+        for (int label = 0; label < labels; label++) {
+            if (label > 0) email.append('.');
+            append(email, HOST, 1, random);
+            int inner = random.nextInt(10);
+            for (int c = 0; c < inner; c++)
+                email.append(random.nextInt(5) == 0 ? '-' : HOST.charAt(random.nextInt(HOST.length())));
+            if (inner > 0) append(email, HOST, 1, random);
+        }
+        return email.toString();
+    }
+
+    private static void append(StringBuilder email, String alphabet, int count, Random random) {
+        for (int i = 0; i < count; i++)
+            email.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private final LongFunction<Optional<User>> loader = id -> {
+        loads.incrementAndGet();
+        return id < 0 ? Optional.empty() : Optional.of(new User(id, "User " + id, "user" + id + "@mail.com"));
+    };
+
+    @Test
+    void getLoadsOnceTest() {
+        UserCache cache = new UserCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(1));
+        UserDto first = cache.get(1L, loader);
+        UserDto second = cache.get(1L, loader);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertTrue(cache.exists(1L, loader));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void missingUserIsNotCachedTest() {
+        UserCache cache = new UserCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(1));
+        assertNull(cache.get(-1L, loader));
+        assertFalse(cache.exists(-1L, loader));
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void expiredEntryIsReloadedTest() {
+        UserCache cache = new UserCache(new SimpleMeterRegistry(), 10, Duration.ZERO);
+        cache.get(1L, loader);
+        cache.get(1L, loader);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void evictTest() {
+        UserCache cache = new UserCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(1));
+        cache.get(1L, loader);
+        cache.evict(1L);
+        cache.get(1L, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictDuringLoadIsNotCachedTest() {
+        UserCache cache = new UserCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(1));
+        cache.get(1L, id -> {
+            cache.evict(id);
+            return loader.apply(id);
+        });
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void scanDoesNotFlushHotUsersTest() {
+        UserCache cache = new UserCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(1));
+        for (int round = 0; round < 3; round++)
+            for (long id = 0; id < 10; id++)
+                cache.get(id, loader);
+        for (long id = 100; id < 1100; id++) {
+            cache.get(id, loader);
+            cache.get(id % 10, loader);
+        }
+        loads.set(0);
+        for (long id = 0; id < 10; id++)
+            assertTrue(cache.exists(id, loader));
+        assertEquals(0, loads.get());
+        assertTrue(cache.size() <= 10);
+    }
+}
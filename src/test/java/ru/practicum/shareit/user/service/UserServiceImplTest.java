@@ -6,17 +6,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.errors.exception.IncorrectParameterException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
 
 @Transactional
@@ -128,6 +132,28 @@ class UserServiceImplTest {
         assertThat(usersAfter.size(), equalTo(2));
     }
 
+    @Test
+    void getAllByCursorTest() {
+        addUsers();
+        UserPageDto first = userService.getAllAfter("", 2);
+        UserPageDto second = userService.getAllAfter(first.getNextCursor(), 2);
+        assertThat(first.getUsers().size(), equalTo(2));
+        assertThat(first.getUsers().get(0).getName(), equalTo("John"));
+        assertThat(first.getUsers().get(1).getName(), equalTo("Bobby"));
+        assertThat(second.getUsers().size(), equalTo(1));
+        assertThat(second.getUsers().get(0).getName(), equalTo("Clare"));
+        assertThat(second.getNextCursor(), nullValue());
+        assertThrows(IncorrectParameterException.class, () -> userService.getAllAfter("abc", 2));
+    }
+
+    @Test
+    void forEachTest() {
+        addUsers();
+        List<String> names = new ArrayList<>();
+        userService.forEach(user -> names.add(user.getName()));
+        assertThat(names, equalTo(List.of("John", "Bobby", "Clare")));
+    }
+
     @Test
     void getAllTest() {
         addUsers();
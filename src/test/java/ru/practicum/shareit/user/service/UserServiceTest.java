@@ -9,15 +9,28 @@ import ru.practicum.shareit.user.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import ru.practicum.shareit.user.repository.UserIdAllocator;
 import ru.practicum.shareit.user.repository.UserStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.DuplicateKeyException;
+import ru.practicum.shareit.user.dto.UserImportErrorDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.LongConsumer;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static ru.practicum.shareit.user.mapper.UserMapper.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static java.util.Optional.*;
+import static java.util.stream.Collectors.toList;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -25,12 +38,20 @@ class UserServiceTest {
     @Mock
     private UserStorage userRepository;
     private UserService userService;
+    private UserIdFilter userIdFilter;
     private UserDto userDto;
     private User user;
 
     @BeforeEach
     void initialize() {
-        userService = new UserServiceImpl(userRepository);
+        userIdFilter = new UserIdFilter(userRepository, new SimpleMeterRegistry(), 100, 0.01);
+        userService = new UserServiceImpl(userRepository,
+                new UserCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1)),
+                userIdFilter,
+                new EmailValidator(),
+                mock(UserIdAllocator.class),
+                new ObjectMapper(),
+                2);
         userDto = UserDto.builder()
                 .id(1L)
                 .name("Paul")
@@ -180,6 +201,85 @@ class UserServiceTest {
                 .deleteById(user.getId());
     }
 
+    @Test
+    void getCachedTest() {
+        when(userRepository.findById(1L))
+                .thenReturn(of(user));
+        assertEquals(userDto, userService.get(1L));
+        assertTrue(userService.exists(1L));
+        assertEquals(userDto, userService.get(1L));
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void updateEvictsCachedTest() {
+        User renamed = new User(1L, "Nagel", userDto.getEmail());
+        when(userRepository.findById(1L))
+                .thenReturn(of(user))
+                .thenReturn(of(renamed));
+        when(userRepository.save(any()))
+                .thenReturn(renamed);
+        userService.get(1L);
+        userService.update(new UserDto(null, "Nagel", null), 1L);
+        assertEquals("Nagel", userService.get(1L).getName());
+    }
+
+    @Test
+    void existsNotFoundTest() {
+        when(userRepository.findById(7L))
+                .thenReturn(empty());
+        assertFalse(userService.exists(7L));
+    }
+
+    @Test
+    void unknownIdSkipsStorageTest() {
+        doAnswer(invocation -> {
+            LongConsumer action = invocation.getArgument(0);
+            action.accept(1L);
+            return null;
+        }).when(userRepository).forEachId(any());
+        userIdFilter.warmUp();
+        Exception exception = assertThrows(ObjectNotFoundException.class,
+                () -> userService.get(2L));
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals("Пользователь с id = 2 не найден", exception.getMessage());
+        assertFalse(userService.exists(2L));
+        verify(userRepository, never()).findById(2L);
+    }
+
+    @Test
+    void refreshAdmitsExternallyCreatedIdTest() {
+        doAnswer(invocation -> {
+            LongConsumer action = invocation.getArgument(0);
+            action.accept(1L);
+            return null;
+        }).when(userRepository).forEachId(any());
+        userIdFilter.warmUp();
+        assertFalse(userService.exists(2L));
+
+        doAnswer(invocation -> {
+            LongConsumer action = invocation.getArgument(0);
+            action.accept(1L);
+            action.accept(2L);
+            return null;
+        }).when(userRepository).forEachId(any());
+        when(userRepository.findById(2L))
+                .thenReturn(of(user));
+        userIdFilter.refresh();
+        assertEquals(userDto.getName(), userService.get(2L).getName());
+    }
+
+    @Test
+    void savedIdPassesFilterTest() {
+        when(userRepository.save(any()))
+                .thenReturn(user);
+        when(userRepository.findById(1L))
+                .thenReturn(of(user));
+        userIdFilter.warmUp();
+        userService.save(userDto);
+        assertEquals(userDto, userService.get(1L));
+    }
+
     @Test
     void getUserNullTest() {
         Exception exception = assertThrows(IncorrectParameterException.class,
@@ -210,4 +310,56 @@ class UserServiceTest {
         assertEquals(dtos.get(0).getId(), user.getId());
         assertEquals(dtos.size(), 1);
     }
+
+    @Test
+    void importUsersTest() throws Exception {
+        userIdFilter.warmUp();
+        List<String> inserted = new ArrayList<>();
+        when(userRepository.findEmailsIn(anyCollection()))
+                .thenReturn(Set.of("taken@mail.com"));
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            for (User user : users) {
+                user.setId(inserted.size() + 1L);
+                inserted.add(user.getEmail());
+            }
+            return null;
+        }).when(userRepository).insertAll(anyList());
+        String body = "{\"name\":\"Ann\",\"email\":\"ann@mail.com\"}\n"
+                + "{\"name\":\"Bob\",\"email\":\"bob@mail\"}\n"
+                + "\n"
+                + "not json\n"
+                + "{\"name\":\"Ann\",\"email\":\"ann@mail.com\"}\n"
+                + "{\"name\":\"\",\"email\":\"empty@mail.com\"}\n"
+                + "{\"name\":\"Tom\",\"email\":\"taken@mail.com\"}\n"
+                + "{\"name\":\"Kim\",\"email\":\"kim@mail.com\"}\n";
+        UserImportResultDto result = userService.importUsers(new BufferedReader(new StringReader(body)));
+        assertEquals(2, result.getAccepted());
+        assertEquals(5, result.getRejected());
+        assertEquals(List.of(2L, 4L, 5L, 6L, 7L),
+                result.getErrors().stream().map(UserImportErrorDto::getLine).collect(toList()));
+        assertEquals(List.of("ann@mail.com", "kim@mail.com"), inserted);
+        assertTrue(userIdFilter.mightExist(1L));
+        assertTrue(userIdFilter.mightExist(2L));
+    }
+
+    @Test
+    void importUsersRetriesFailedBatchRowByRowTest() throws Exception {
+        when(userRepository.findEmailsIn(anyCollection()))
+                .thenReturn(Set.of());
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if (users.size() > 1 || users.get(0).getEmail().equals("bob@mail.com"))
+                throw new DuplicateKeyException("UQ_USER_EMAIL");
+            users.get(0).setId(1L);
+            return null;
+        }).when(userRepository).insertAll(anyList());
+        String body = "{\"name\":\"Ann\",\"email\":\"ann@mail.com\"}\n"
+                + "{\"name\":\"Bob\",\"email\":\"bob@mail.com\"}\n";
+        UserImportResultDto result = userService.importUsers(new BufferedReader(new StringReader(body)));
+        assertEquals(1, result.getAccepted());
+        assertEquals(1, result.getRejected());
+        assertEquals("bob@mail.com", result.getErrors().get(0).getEmail());
+        verify(userRepository, times(3)).insertAll(anyList());
+    }
 }
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+    @Test
+    void sizingTest() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+        assertTrue(filter.bitSize() >= 9_585_059);
+        assertEquals(7, filter.hashCount());
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+    }
+
+    @Test
+    void noFalseNegativesTest() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++)
+            filter.add(id);
+        for (long id = 1; id <= 10_000; id++)
+            assertTrue(filter.mightContain(id));
+    }
+
+    @Test
+    void falsePositiveRateTest() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++)
+            filter.add(id);
+        int falsePositives = 0;
+        for (long id = 1_000_000; id < 1_100_000; id++)
+            if (filter.mightContain(id)) falsePositives++;
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
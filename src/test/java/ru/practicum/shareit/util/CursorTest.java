@@ -0,0 +1,29 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.errors.exception.IncorrectParameterException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTest {
+    @Test
+    void encodeDecodeTest() {
+        LocalDateTime time = LocalDateTime.of(2030, 5, 1, 10, 15, 30, 123_000_000);
+        Cursor cursor = Cursor.decode(new Cursor(time, 42L).encode());
+        assertEquals(time, cursor.getTime());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    void emptyCursorTest() {
+        assertNull(Cursor.decode(""));
+        assertNull(Cursor.decode(null));
+    }
+
+    @Test
+    void incorrectCursorTest() {
+        assertThrows(IncorrectParameterException.class, () -> Cursor.decode("bm90LWEtY3Vyc29y"));
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+    @Test
+    void countsUpToFifteenTest() {
+        FrequencySketch sketch = new FrequencySketch(512);
+        assertEquals(0, sketch.frequency(42L));
+        for (int i = 0; i < 5; i++)
+            sketch.increment(42L);
+        assertEquals(5, sketch.frequency(42L));
+        for (int i = 0; i < 20; i++)
+            sketch.increment(42L);
+        assertEquals(15, sketch.frequency(42L));
+    }
+
+    @Test
+    void hotKeyOutranksColdKeysTest() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (long key = 0; key < 1000; key++) {
+            sketch.increment(key);
+            sketch.increment(-1L);
+        }
+        int colder = 0;
+        for (long key = 0; key < 1000; key++)
+            if (sketch.frequency(key) < sketch.frequency(-1L)) colder++;
+        assertTrue(colder > 990);
+    }
+
+    @Test
+    void resetHalvesCountersTest() {
+        FrequencySketch sketch = new FrequencySketch(1);
+        for (int i = 0; i < 8; i++)
+            sketch.increment(7L);
+        assertEquals(8, sketch.frequency(7L));
+        sketch.increment(8L);
+        sketch.increment(9L);
+        assertTrue(sketch.frequency(7L) <= 4);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectMapTest {
+    @Test
+    void putAndGetTest() {
+        LongObjectMap<String> map = new LongObjectMap<>(0);
+        assertNull(map.put(0L, "zero"));
+        assertNull(map.put(-1L, "minus"));
+        assertNull(map.put(Long.MAX_VALUE, "max"));
+        assertEquals("zero", map.put(0L, "nil"));
+        assertEquals("nil", map.get(0L));
+        assertEquals("minus", map.get(-1L));
+        assertEquals("max", map.get(Long.MAX_VALUE));
+        assertNull(map.get(1L));
+        assertFalse(map.containsKey(1L));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void computeIfAbsentTest() {
+        LongObjectMap<List<Long>> map = new LongObjectMap<>();
+        for (long i = 0; i < 100; i++)
+            map.computeIfAbsent(i % 7, key -> new ArrayList<>()).add(i);
+        assertEquals(7, map.size());
+        assertEquals(15, map.get(0L).size());
+        assertEquals(14, map.get(6L).size());
+    }
+
+    @Test
+    void nullValueTest() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    void matchesHashMapTest() {
+        Random random = new Random(7);
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(10_000) * 1024L;
+            assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(expected.keySet().iterator().next()));
+    }
+}
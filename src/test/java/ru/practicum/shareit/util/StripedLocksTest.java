@@ -0,0 +1,62 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLocksTest {
+    @Test
+    void disjointKeysDoNotContendTest() throws Exception {
+        StripedLocks locks = new StripedLocks(1);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> holder = executor.submit(() -> locks.withLock(1L, () -> {
+                locked.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+            assertEquals("free", locks.withLock(2L, () -> "free"));
+            release.countDown();
+            assertTrue(holder.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void sameKeyIsExclusiveTest() throws Exception {
+        StripedLocks locks = new StripedLocks(4);
+        int[] counter = new int[1];
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++)
+                executor.submit(() -> {
+                    for (int j = 0; j < 10_000; j++)
+                        locks.withLock(7L, () -> counter[0]++);
+                });
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(80_000, counter[0]);
+    }
+
+    @Test
+    void incorrectStripesTest() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(0));
+        assertEquals(3, new StripedLocks(3).stripes());
+    }
+}